@@ -0,0 +1,38 @@
+package br.com.microservices.orchestrated.inventoryservice.config.idempotency;
+
+import br.com.microservices.orchestrated.inventoryservice.core.dto.Event;
+import br.com.microservices.orchestrated.sagacommons.codec.EventCodec;
+import br.com.microservices.orchestrated.sagacommons.idempotency.IdempotentEventProcessor;
+import br.com.microservices.orchestrated.sagacommons.idempotency.ProcessedEvent;
+import br.com.microservices.orchestrated.sagacommons.idempotency.ProcessedEventRepository;
+import br.com.microservices.orchestrated.sagacommons.idempotency.ProcessedEventStore;
+import br.com.microservices.orchestrated.sagacommons.outbox.OutboxService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+@Configuration
+@EntityScan(basePackageClasses = ProcessedEvent.class)
+@EnableJpaRepositories(basePackageClasses = ProcessedEventRepository.class)
+public class IdempotencyConfig {
+
+    @Value("${saga.idempotency.cache-max-size}")
+    private long cacheMaxSize;
+
+    @Value("${saga.idempotency.cache-ttl-ms}")
+    private long cacheTtlMs;
+
+    @Bean
+    public ProcessedEventStore processedEventStore(ProcessedEventRepository processedEventRepository){
+        return new ProcessedEventStore(processedEventRepository, cacheMaxSize, cacheTtlMs);
+    }
+
+    @Bean
+    public IdempotentEventProcessor<Event> idempotentEventProcessor(ProcessedEventStore processedEventStore,
+                                                                   OutboxService<Event> outboxService,
+                                                                   EventCodec<Event> eventCodec){
+        return new IdempotentEventProcessor<>(processedEventStore, outboxService, eventCodec);
+    }
+}
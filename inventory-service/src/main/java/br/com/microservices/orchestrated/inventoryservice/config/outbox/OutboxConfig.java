@@ -0,0 +1,50 @@
+package br.com.microservices.orchestrated.inventoryservice.config.outbox;
+
+import br.com.microservices.orchestrated.inventoryservice.InventoryServiceApplication;
+import br.com.microservices.orchestrated.inventoryservice.core.dto.Event;
+import br.com.microservices.orchestrated.sagacommons.codec.EventCodec;
+import br.com.microservices.orchestrated.sagacommons.idempotency.ProcessedEventStore;
+import br.com.microservices.orchestrated.sagacommons.kafka.SagaEventPublisher;
+import br.com.microservices.orchestrated.sagacommons.outbox.OutboxEvent;
+import br.com.microservices.orchestrated.sagacommons.outbox.OutboxEventRepository;
+import br.com.microservices.orchestrated.sagacommons.outbox.OutboxRelay;
+import br.com.microservices.orchestrated.sagacommons.outbox.OutboxService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+@EntityScan(basePackageClasses = {InventoryServiceApplication.class, OutboxEvent.class})
+@EnableJpaRepositories(basePackageClasses = {InventoryServiceApplication.class, OutboxEventRepository.class})
+public class OutboxConfig {
+
+    @Value("${spring.kafka.topic.orchestrator}")
+    private String orchestratorTopic;
+
+    @Bean
+    public OutboxRelay outboxRelay(OutboxEventRepository outboxEventRepository,
+                                   SagaEventPublisher sagaEventPublisher,
+                                   TransactionTemplate transactionTemplate,
+                                   MeterRegistry meterRegistry,
+                                   Tracer tracer,
+                                   Propagator propagator){
+        return new OutboxRelay(outboxEventRepository, sagaEventPublisher, transactionTemplate, meterRegistry, tracer, propagator);
+    }
+
+    @Bean
+    public OutboxService<Event> outboxService(OutboxEventRepository outboxEventRepository,
+                                              OutboxRelay outboxRelay,
+                                              ProcessedEventStore processedEventStore,
+                                              EventCodec<Event> eventCodec,
+                                              MeterRegistry meterRegistry,
+                                              Tracer tracer,
+                                              Propagator propagator){
+        return new OutboxService<>(outboxEventRepository, outboxRelay, processedEventStore, eventCodec, orchestratorTopic, meterRegistry, tracer, propagator);
+    }
+}
@@ -0,0 +1,17 @@
+package br.com.microservices.orchestrated.inventoryservice.config.tracing;
+
+import io.opentelemetry.exporter.logging.LoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    @ConditionalOnProperty(value = "saga.tracing.exporter", havingValue = "logging")
+    public SpanExporter loggingSpanExporter(){
+        return LoggingSpanExporter.create();
+    }
+}
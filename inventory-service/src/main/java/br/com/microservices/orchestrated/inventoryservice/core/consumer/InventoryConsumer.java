@@ -1,9 +1,13 @@
 package br.com.microservices.orchestrated.inventoryservice.core.consumer;
 
+import br.com.microservices.orchestrated.sagacommons.idempotency.IdempotentEventProcessor;
 import br.com.microservices.orchestrated.inventoryservice.core.service.InventoryService;
-import br.com.microservices.orchestrated.inventoryservice.core.utils.JsonUtil;
+import br.com.microservices.orchestrated.inventoryservice.core.dto.Event;
+import br.com.microservices.orchestrated.sagacommons.codec.EventCodec;
+import br.com.microservices.orchestrated.sagacommons.kafka.SagaHeaders;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
@@ -12,29 +16,29 @@ import org.springframework.stereotype.Component;
 @AllArgsConstructor
 public class InventoryConsumer {
 
-    private final JsonUtil jsonUtil;
+    private final EventCodec<Event> eventCodec;
     private final InventoryService inventoryService;
 
+    private final IdempotentEventProcessor<Event> idempotentEventProcessor;
+
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.inventory-success}"
     )
-    public void consumerSuccessEvent(String paylad){
-        log.info("Receiving success event {} from inventory-success topic", paylad);
-        var event = jsonUtil.toEvent(paylad);
-        log.info(event.toString());
-        inventoryService.updateInventory(event);
+    public void consumerSuccessEvent(ConsumerRecord<String, byte[]> record){
+        var event = eventCodec.decode(record.value());
+        log.info("Receiving success event {} from inventory-success topic", event);
+        idempotentEventProcessor.process(event, SagaHeaders.readStep(record.headers()).orElse(null), inventoryService::updateInventory);
     }
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.inventory-fail}"
     )
-    public void consumerFailEvent(String paylad){
-        log.info("Receiving rollback event {} from inventory-fail topic", paylad);
-        var event = jsonUtil.toEvent(paylad);
-        log.info(event.toString());
-        inventoryService.rollbackInventory(event);
+    public void consumerFailEvent(ConsumerRecord<String, byte[]> record){
+        var event = eventCodec.decode(record.value());
+        log.info("Receiving rollback event {} from inventory-fail topic", event);
+        idempotentEventProcessor.process(event, SagaHeaders.readStep(record.headers()).orElse(null), inventoryService::rollbackInventory);
     }
 
 
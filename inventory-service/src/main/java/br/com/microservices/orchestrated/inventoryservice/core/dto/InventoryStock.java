@@ -0,0 +1,8 @@
+package br.com.microservices.orchestrated.inventoryservice.core.dto;
+
+public interface InventoryStock {
+
+    Integer getId();
+
+    Integer getAvailable();
+}
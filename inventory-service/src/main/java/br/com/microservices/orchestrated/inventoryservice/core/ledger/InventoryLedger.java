@@ -0,0 +1,224 @@
+package br.com.microservices.orchestrated.inventoryservice.core.ledger;
+
+import br.com.microservices.orchestrated.inventoryservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.inventoryservice.core.model.Inventory;
+import br.com.microservices.orchestrated.inventoryservice.core.model.OrderInventory;
+import br.com.microservices.orchestrated.inventoryservice.core.repository.InventoryRepository;
+import br.com.microservices.orchestrated.inventoryservice.core.repository.LedgerLeaseRepository;
+import br.com.microservices.orchestrated.inventoryservice.core.repository.OrderInventoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryLedger {
+
+    private static final String LEASE_ID = "inventory-ledger";
+
+    private final InventoryRepository inventoryRepository;
+    private final OrderInventoryRepository orderInventoryRepository;
+    private final LedgerLeaseRepository ledgerLeaseRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final String owner = UUID.randomUUID().toString();
+
+    private volatile Map<String, LedgerEntry> entries = Map.of();
+
+    @Value("${inventory.ledger.enabled}")
+    private boolean enabled;
+
+    @Value("${inventory.ledger.hot-products}")
+    private Set<String> hotProducts;
+
+    @Value("${inventory.ledger.flush-batch-size}")
+    private int flushBatchSize;
+
+    @Value("${inventory.ledger.lease-ms}")
+    private long leaseMs;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load(){
+        if (!enabled){
+            if (ledgerLeaseRepository.existsByOwnerNotAndExpiresAtGreaterThanEqual(owner, LocalDateTime.now())){
+                throw new IllegalStateException("Inventory ledger is owned by another instance, "
+                        + "every inventory-service instance must run with inventory.ledger.enabled while it holds the lease");
+            }
+            return;
+        }
+        if (!acquireLease()){
+            throw new IllegalStateException("Inventory ledger is already owned by another instance, "
+                    + "only one inventory-service instance can run with inventory.ledger.enabled");
+        }
+        var loadedEntries = new HashMap<String, LedgerEntry>();
+        hotProducts.forEach(productCode -> inventoryRepository.findByProductCode(productCode)
+                .ifPresentOrElse(inventory -> loadedEntries.put(productCode, createEntry(inventory)),
+                        () -> log.warn("Hot product {} not found in inventory, it will not be kept in the ledger", productCode)));
+        transactionTemplate.executeWithoutResult(status -> inventoryRepository.assignLedgerOwner(loadedEntries.keySet(), owner));
+        entries = Map.copyOf(loadedEntries);
+        log.info("Inventory ledger loaded with hot products {}", entries.keySet());
+    }
+
+    public boolean isHotProduct(String productCode){
+        return entries.containsKey(productCode);
+    }
+
+    public Inventory findInventory(String productCode){
+        return findEntry(productCode).inventory();
+    }
+
+    public int reserve(String productCode, int quantity){
+        var entry = findEntry(productCode);
+        entry.lock().lock();
+        try {
+            var current = entry.available().get();
+            if (current < quantity){
+                throw new ValidationException("Product is out of stock!");
+            }
+            entry.available().addAndGet(-quantity);
+            entry.inFlight().addAndGet(quantity);
+            return (int) current;
+        }finally {
+            entry.lock().unlock();
+        }
+    }
+
+    public void confirmReservation(String productCode, int quantity){
+        updateEntry(productCode, entry -> entry.inFlight().addAndGet(-quantity));
+    }
+
+    public void cancelReservation(String productCode, int quantity){
+        updateEntry(productCode, entry -> {
+            entry.inFlight().addAndGet(-quantity);
+            entry.available().addAndGet(quantity);
+        });
+    }
+
+    public void release(String productCode, int quantity){
+        updateEntry(productCode, entry -> entry.available().addAndGet(quantity));
+    }
+
+    public void withPendingRelease(Collection<String> productCodes, Runnable action){
+        var releasedEntries = new HashSet<>(productCodes)
+                .stream()
+                .map(entries::get)
+                .filter(Objects::nonNull)
+                .toList();
+        releasedEntries.forEach(entry -> entry.pendingReleases().incrementAndGet());
+        try {
+            action.run();
+        }finally {
+            releasedEntries.forEach(entry -> entry.pendingReleases().decrementAndGet());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.ledger.flush-interval-ms}")
+    public void flush(){
+        if (!enabled){
+            return;
+        }
+        try {
+            var flushed = flushBatch();
+            while (flushed == flushBatchSize){
+                flushed = flushBatch();
+            }
+        }catch (Exception ex){
+            log.error("Error trying to flush ledger reservations, they will be retried: ", ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.ledger.reconcile-interval-ms}", initialDelayString = "${inventory.ledger.reconcile-interval-ms}")
+    public void reconcile(){
+        entries.keySet().forEach(productCode -> updateEntry(productCode, entry -> {
+            if (entry.pendingReleases().get() > 0){
+                return;
+            }
+            var ledgerAvailable = entry.available().get();
+            var expectedAvailable = inventoryRepository.findAvailableAfterPendingReservations(entry.inventory().getId())
+                    - entry.inFlight().get();
+            if (entry.pendingReleases().get() > 0){
+                log.info("Skipping ledger reconcile for product {} while a rollback releases its stock", productCode);
+                return;
+            }
+            if (expectedAvailable != ledgerAvailable){
+                log.warn("Reconciling ledger for product {} from {} to {}", productCode, ledgerAvailable, expectedAvailable);
+                entry.available().set(expectedAvailable);
+            }
+        }));
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.ledger.lease-renew-interval-ms}", initialDelayString = "${inventory.ledger.lease-renew-interval-ms}")
+    public void renewLease(){
+        if (entries.isEmpty() || acquireLease()){
+            return;
+        }
+        log.error("Inventory ledger lease was lost, hot products {} will be reserved on the database", entries.keySet());
+        entries = Map.of();
+    }
+
+    private boolean acquireLease(){
+        var now = LocalDateTime.now();
+        return ledgerLeaseRepository.acquire(LEASE_ID, owner, now, now.plus(leaseMs, ChronoUnit.MILLIS)) > 0;
+    }
+
+    private LedgerEntry createEntry(Inventory inventory){
+        return new LedgerEntry(inventory, inventoryRepository.findAvailableAfterPendingReservations(inventory.getId()));
+    }
+
+    private int flushBatch(){
+        var flushed = transactionTemplate.execute(status -> {
+            var batch = orderInventoryRepository.lockPendingReservations(flushBatchSize);
+            if (batch.isEmpty()){
+                return 0;
+            }
+            var quantities = new HashMap<String, Integer>();
+            batch.forEach(orderInventory ->
+                    quantities.merge(orderInventory.getInventory().getProductCode(), orderInventory.getOrderQuantity(), Integer::sum));
+            quantities.forEach((productCode, quantity) -> inventoryRepository.addAvailable(productCode, -quantity));
+            orderInventoryRepository.markAsApplied(batch.stream().map(OrderInventory::getId).toList(), LocalDateTime.now());
+            return batch.size();
+        });
+        if (flushed != null && flushed > 0){
+            log.info("Flushed {} ledger reservations to inventory", flushed);
+        }
+        return flushed == null ? 0 : flushed;
+    }
+
+    private void updateEntry(String productCode, Consumer<LedgerEntry> update){
+        var entry = entries.get(productCode);
+        if (entry == null){
+            return;
+        }
+        entry.lock().lock();
+        try {
+            update.accept(entry);
+        }finally {
+            entry.lock().unlock();
+        }
+    }
+
+    private LedgerEntry findEntry(String productCode){
+        var entry = entries.get(productCode);
+        if (entry == null){
+            throw new ValidationException("Product is not kept in the inventory ledger");
+        }
+        return entry;
+    }
+}
@@ -0,0 +1,14 @@
+package br.com.microservices.orchestrated.inventoryservice.core.ledger;
+
+import br.com.microservices.orchestrated.inventoryservice.core.model.Inventory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+public record LedgerEntry(Inventory inventory, AtomicLong available, AtomicLong inFlight, AtomicInteger pendingReleases, ReentrantLock lock) {
+
+    public LedgerEntry(Inventory inventory, long available) {
+        this(inventory, new AtomicLong(available), new AtomicLong(), new AtomicInteger(), new ReentrantLock());
+    }
+}
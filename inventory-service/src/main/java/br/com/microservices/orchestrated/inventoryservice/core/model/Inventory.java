@@ -22,4 +22,6 @@ public class Inventory {
 
     @Column(nullable = false)
     private Integer available;
+
+    private String ledgerOwner;
 }
@@ -13,11 +13,12 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "orderinventory")
+@Table(name = "orderinventory", indexes = @Index(name = "idx_orderinventory_pending", columnList = "inventory_id, applied"))
 public class OrderInventory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_inventory_sequence")
+    @SequenceGenerator(name = "order_inventory_sequence", sequenceName = "order_inventory_sequence", allocationSize = 50)
     private Integer id;
 
     @ManyToOne
@@ -39,6 +40,12 @@ public class OrderInventory {
     @Column(nullable = false)
     private Integer newQuantity;
 
+    @Column(nullable = false)
+    private boolean rolledBack;
+
+    @Column(nullable = false)
+    private boolean applied;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
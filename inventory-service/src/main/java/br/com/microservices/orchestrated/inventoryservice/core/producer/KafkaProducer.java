@@ -1,27 +0,0 @@
-package br.com.microservices.orchestrated.inventoryservice.core.producer;
-
-import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.stereotype.Component;
-
-@Slf4j
-@Component
-@RequiredArgsConstructor
-public class KafkaProducer {
-
-    private final KafkaTemplate<String, String> kafkaTemplate;
-
-    @Value("${spring.kafka.topic.orchestrator}")
-    private String orchestratorTopic;
-
-    public void sendEvent(String payload){
-        try {
-            log.info("Sending evento to topic {} with data {}", orchestratorTopic, payload);
-            kafkaTemplate.send(orchestratorTopic, payload);
-        }catch (Exception ex){
-            log.error("Erro trying to send data to topic {} with data {}", orchestratorTopic, payload, ex);
-        }
-    }
-}
@@ -1,10 +1,49 @@
 package br.com.microservices.orchestrated.inventoryservice.core.repository;
 
+import br.com.microservices.orchestrated.inventoryservice.core.dto.InventoryStock;
 import br.com.microservices.orchestrated.inventoryservice.core.model.Inventory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 
 public interface InventoryRepository extends JpaRepository<Inventory,Integer > {
     Optional<Inventory> findByProductCode(String productCode);
+
+    @Query(value = "UPDATE inventory i SET available = i.available - :quantity "
+            + "WHERE i.product_code = :productCode AND i.available - COALESCE((SELECT SUM(oi.order_quantity) FROM orderinventory oi "
+            + "WHERE oi.inventory_id = i.id AND oi.applied = false AND oi.rolled_back = false), 0) >= :quantity "
+            + "AND NOT EXISTS (SELECT 1 FROM ledger_lease l WHERE l.owner = i.ledger_owner AND l.expires_at >= :now) "
+            + "RETURNING i.id, i.available", nativeQuery = true)
+    Optional<InventoryStock> decreaseAvailable(@Param("productCode") String productCode,
+                                               @Param("quantity") Integer quantity,
+                                               @Param("now") LocalDateTime now);
+
+    @Query(value = "SELECT COUNT(*) > 0 FROM inventory i JOIN ledger_lease l ON l.owner = i.ledger_owner "
+            + "WHERE i.product_code = :productCode AND l.expires_at >= :now", nativeQuery = true)
+    boolean isKeptInLedger(@Param("productCode") String productCode, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Inventory i SET i.ledgerOwner = :owner WHERE i.productCode IN :productCodes")
+    int assignLedgerOwner(@Param("productCodes") Collection<String> productCodes, @Param("owner") String owner);
+
+    @Query(value = "SELECT i.available - COALESCE((SELECT SUM(oi.order_quantity) FROM orderinventory oi "
+            + "WHERE oi.inventory_id = i.id AND oi.applied = false AND oi.rolled_back = false), 0) "
+            + "FROM inventory i WHERE i.id = :id", nativeQuery = true)
+    long findAvailableAfterPendingReservations(@Param("id") Integer id);
+
+    @Modifying
+    @Query("UPDATE Inventory i SET i.available = i.available + :quantity WHERE i.productCode = :productCode")
+    int addAvailable(@Param("productCode") String productCode, @Param("quantity") Integer quantity);
+
+    @Modifying
+    @Query(value = "UPDATE inventory i SET available = i.available + oi.quantity "
+            + "FROM (SELECT inventory_id, SUM(order_quantity) AS quantity FROM orderinventory "
+            + "WHERE order_id = :orderId AND transaction_id = :transactionId AND applied = true GROUP BY inventory_id) oi "
+            + "WHERE i.id = oi.inventory_id", nativeQuery = true)
+    int restoreAvailableByOrder(@Param("orderId") String orderId, @Param("transactionId") String transactionId);
 }
@@ -0,0 +1,25 @@
+package br.com.microservices.orchestrated.inventoryservice.core.repository;
+
+import br.com.microservices.orchestrated.inventoryservice.core.model.LedgerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface LedgerLeaseRepository extends JpaRepository<LedgerLease, String> {
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO ledger_lease (id, owner, expires_at) VALUES (:id, :owner, :expiresAt) "
+            + "ON CONFLICT (id) DO UPDATE SET owner = EXCLUDED.owner, expires_at = EXCLUDED.expires_at "
+            + "WHERE ledger_lease.owner = EXCLUDED.owner OR ledger_lease.expires_at < :now", nativeQuery = true)
+    int acquire(@Param("id") String id,
+                @Param("owner") String owner,
+                @Param("now") LocalDateTime now,
+                @Param("expiresAt") LocalDateTime expiresAt);
+
+    boolean existsByOwnerNotAndExpiresAtGreaterThanEqual(String owner, LocalDateTime now);
+}
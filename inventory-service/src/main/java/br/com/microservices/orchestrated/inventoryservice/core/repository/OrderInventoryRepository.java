@@ -2,12 +2,30 @@ package br.com.microservices.orchestrated.inventoryservice.core.repository;
 
 import br.com.microservices.orchestrated.inventoryservice.core.model.OrderInventory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 
 public interface OrderInventoryRepository extends JpaRepository<OrderInventory, Integer> {
-    Boolean existsByOrderIdAndTransactionId(String orderId, String transactionId);
 
-    List<Optional<OrderInventory>> findByOrderIdAndTransactionId(String orderId, String transactionId);
+    @Query("SELECT oi FROM OrderInventory oi JOIN FETCH oi.inventory WHERE oi.orderId = :orderId AND oi.transactionId = :transactionId")
+    List<OrderInventory> findByOrderIdAndTransactionId(@Param("orderId") String orderId, @Param("transactionId") String transactionId);
+
+    @Modifying
+    @Query("UPDATE OrderInventory oi SET oi.rolledBack = true, oi.updatedAt = :updatedAt "
+            + "WHERE oi.orderId = :orderId AND oi.transactionId = :transactionId AND oi.rolledBack = false")
+    int markAsRolledBack(@Param("orderId") String orderId,
+                         @Param("transactionId") String transactionId,
+                         @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Query(value = "SELECT * FROM orderinventory WHERE applied = false AND rolled_back = false "
+            + "ORDER BY id LIMIT :batchSize FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OrderInventory> lockPendingReservations(@Param("batchSize") int batchSize);
+
+    @Modifying
+    @Query("UPDATE OrderInventory oi SET oi.applied = true, oi.updatedAt = :updatedAt WHERE oi.id IN :ids")
+    int markAsApplied(@Param("ids") List<Integer> ids, @Param("updatedAt") LocalDateTime updatedAt);
 }
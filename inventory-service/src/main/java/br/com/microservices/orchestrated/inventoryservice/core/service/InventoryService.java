@@ -3,20 +3,27 @@ package br.com.microservices.orchestrated.inventoryservice.core.service;
 import br.com.microservices.orchestrated.inventoryservice.config.exception.ValidationException;
 import br.com.microservices.orchestrated.inventoryservice.core.dto.Event;
 import br.com.microservices.orchestrated.inventoryservice.core.dto.History;
-import br.com.microservices.orchestrated.inventoryservice.core.dto.Order;
+import br.com.microservices.orchestrated.inventoryservice.core.dto.InventoryStock;
 import br.com.microservices.orchestrated.inventoryservice.core.dto.OrderProducts;
 import br.com.microservices.orchestrated.inventoryservice.core.enums.ESagaStatus;
+import br.com.microservices.orchestrated.inventoryservice.core.ledger.InventoryLedger;
 import br.com.microservices.orchestrated.inventoryservice.core.model.Inventory;
 import br.com.microservices.orchestrated.inventoryservice.core.model.OrderInventory;
-import br.com.microservices.orchestrated.inventoryservice.core.producer.KafkaProducer;
+import br.com.microservices.orchestrated.sagacommons.codec.EventCodec;
+import br.com.microservices.orchestrated.sagacommons.outbox.OutboxService;
 import br.com.microservices.orchestrated.inventoryservice.core.repository.InventoryRepository;
 import br.com.microservices.orchestrated.inventoryservice.core.repository.OrderInventoryRepository;
-import br.com.microservices.orchestrated.inventoryservice.core.utils.JsonUtil;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.util.ObjectUtils.isEmpty;
 
 @Slf4j
 @Service
@@ -24,71 +31,126 @@ import java.time.LocalDateTime;
 public class InventoryService {
 
     private static final String CURRENT_SOURCE = "INVENTORY_SERVICE";
-    private final JsonUtil jsonUtil;
-    private final KafkaProducer kafkaProducer;
+    private final OutboxService<Event> outboxService;
     private final InventoryRepository inventoryRepository;
     private final OrderInventoryRepository orderInventoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final InventoryLedger inventoryLedger;
+    private final EventCodec<Event> eventCodec;
 
     public void updateInventory(Event event){
+        var receivedPayload = eventCodec.encode(event);
         try {
-            checkCurrentValidation(event);
-            createOrderInventory(event);
-            updateInventory(event.getPayload());
-            handleSuccess(event);
-
+            reserveInventory(event);
+        }catch (DataIntegrityViolationException ex){
+            throw handleDuplicatedEvent(event, ex);
         }catch (Exception ex){
             log.error("Error trying to update inventory: ", ex);
-            handleFailCurrentNotExecuted(event, ex.getMessage());
+            var failedEvent = eventCodec.decode(receivedPayload);
+            handleFailCurrentNotExecuted(failedEvent, ex.getMessage());
+            outboxService.save(failedEvent);
         }
-        kafkaProducer.sendEvent(jsonUtil.toJson(event));
     }
 
     public void rollbackInventory(Event event){
         event.setStatus(ESagaStatus.FAIL);
         event.setSource(CURRENT_SOURCE);
+        var receivedPayload = eventCodec.encode(event);
         try{
             returnInventoryToPreviousValues(event);
-            addHistory(event, "Rollback executed for inventory!");
+        }catch (DataIntegrityViolationException ex){
+            throw handleDuplicatedEvent(event, ex);
         }catch (Exception ex){
-            addHistory(event, "Rollback not executed for inventory: ".concat(ex.getMessage()) );
+            var failedEvent = eventCodec.decode(receivedPayload);
+            addHistory(failedEvent, "Rollback not executed for inventory: ".concat(ex.getMessage()) );
+            outboxService.save(failedEvent);
         }
-        kafkaProducer.sendEvent(jsonUtil.toJson(event));
     }
 
     private void returnInventoryToPreviousValues(Event event) {
-        orderInventoryRepository.findByOrderIdAndTransactionId(event.getPayload().getId(), event.getTransactionId())
-                .forEach(orderInventory -> {
-                    var inventory = orderInventory.get().getInventory();
-                    inventory.setAvailable(orderInventory.get().getOldQuantity());
-                    inventoryRepository.save(inventory);
-                    log.info("Restored inventory for order {} from {} to {}",
-                            event.getPayload().getId(), orderInventory.get().getOldQuantity(), inventory.getAvailable());
-                });
-
+        var orderId = event.getPayload().getId();
+        var transactionId = event.getTransactionId();
+        var productCodes = event
+                .getPayload()
+                .getProducts()
+                .stream()
+                .map(orderProducts -> orderProducts.getProduct().getCode())
+                .toList();
+        inventoryLedger.withPendingRelease(productCodes, () -> {
+            var orderInventories = transactionTemplate.execute(status -> {
+                var restoredInventories = restoreOrderInventories(orderId, transactionId);
+                addHistory(event, "Rollback executed for inventory!");
+                outboxService.save(event);
+                return restoredInventories;
+            });
+            if (isEmpty(orderInventories)){
+                log.info("There is no inventory to restore for order {} and transactionId {}", orderId, transactionId);
+                return;
+            }
+            orderInventories.forEach(orderInventory -> {
+                var productCode = orderInventory.getInventory().getProductCode();
+                inventoryLedger.release(productCode, orderInventory.getOrderQuantity());
+                log.info("Restored {} units of product {} for order {}", orderInventory.getOrderQuantity(), productCode, orderId);
+            });
+        });
     }
 
-    private void checkCurrentValidation(Event event) {
-        if (orderInventoryRepository.existsByOrderIdAndTransactionId(event.getOrderId(), event.getTransactionId())){
-            throw new ValidationException("there's another transactionId for this validation");
+    private List<OrderInventory> restoreOrderInventories(String orderId, String transactionId) {
+        if (orderInventoryRepository.markAsRolledBack(orderId, transactionId, LocalDateTime.now()) == 0){
+            return List.of();
         }
+        inventoryRepository.restoreAvailableByOrder(orderId, transactionId);
+        return orderInventoryRepository.findByOrderIdAndTransactionId(orderId, transactionId);
     }
-    private void createOrderInventory(Event event) {
-        event.getPayload().getProducts().forEach(produto ->{
-            var inventory = findInventoryByProductCode(produto.getProduct().getCode());
-            var orderInventory = createOrderInventory(event, produto,inventory);
-            orderInventoryRepository.save(orderInventory);
+
+    private void reserveInventory(Event event) {
+        var ledgerReservations = new ArrayList<OrderInventory>();
+        var databaseProducts = new ArrayList<OrderProducts>();
+        try {
+            event.getPayload().getProducts().forEach(produto -> {
+                if (inventoryLedger.isHotProduct(produto.getProduct().getCode())){
+                    ledgerReservations.add(reserveOnLedger(event, produto));
+                }else {
+                    databaseProducts.add(produto);
                 }
-        );
+            });
+            transactionTemplate.executeWithoutResult(status -> {
+                orderInventoryRepository.saveAll(ledgerReservations);
+                databaseProducts.forEach(produto -> reserveOnDatabase(event, produto));
+                handleSuccess(event);
+                outboxService.save(event);
+            });
+        }catch (RuntimeException ex){
+            ledgerReservations.forEach(orderInventory -> inventoryLedger.cancelReservation(
+                    orderInventory.getInventory().getProductCode(), orderInventory.getOrderQuantity()));
+            throw ex;
+        }
+        ledgerReservations.forEach(orderInventory -> inventoryLedger.confirmReservation(
+                orderInventory.getInventory().getProductCode(), orderInventory.getOrderQuantity()));
     }
 
-    private OrderInventory createOrderInventory(Event event, OrderProducts orderProducts, Inventory inventory) {
+    private OrderInventory reserveOnLedger(Event event, OrderProducts orderProducts) {
+        var productCode = orderProducts.getProduct().getCode();
+        var oldQuantity = inventoryLedger.reserve(productCode, orderProducts.getQuantity());
+        return createOrderInventory(event, orderProducts, inventoryLedger.findInventory(productCode), oldQuantity, false);
+    }
+
+    private void reserveOnDatabase(Event event, OrderProducts orderProducts) {
+        var stock = decreaseInventory(orderProducts.getProduct().getCode(), orderProducts.getQuantity());
+        var inventory = inventoryRepository.getReferenceById(stock.getId());
+        var oldQuantity = stock.getAvailable() + orderProducts.getQuantity();
+        orderInventoryRepository.save(createOrderInventory(event, orderProducts, inventory, oldQuantity, true));
+    }
+
+    private OrderInventory createOrderInventory(Event event, OrderProducts orderProducts, Inventory inventory, int oldQuantity, boolean applied) {
         return OrderInventory.builder()
                 .inventory(inventory)
-                .oldQuantity(inventory.getAvailable())
+                .oldQuantity(oldQuantity)
                 .orderQuantity(orderProducts.getQuantity())
-                .newQuantity(inventory.getAvailable() - orderProducts.getQuantity())
+                .newQuantity(oldQuantity - orderProducts.getQuantity())
                 .orderId(event.getPayload().getId())
                 .transactionId(event.getTransactionId())
+                .applied(applied)
                 .build();
     }
 
@@ -97,21 +159,17 @@ public class InventoryService {
                 .orElseThrow(() -> new ValidationException("Inventory not found by informed product"));
     }
 
-    private void updateInventory(Order order){
-        order.
-                getProducts()
-                .forEach(product -> {
-                    var inventory = findInventoryByProductCode(product.getProduct().getCode());
-                    checkInventory(inventory.getAvailable(), product.getQuantity());
-                    inventory.setAvailable(inventory.getAvailable() - product.getQuantity());
-                    inventoryRepository.save(inventory);
+    private InventoryStock decreaseInventory(String productCode, int orderQuantity){
+        var now = LocalDateTime.now();
+        return inventoryRepository.decreaseAvailable(productCode, orderQuantity, now)
+                .orElseThrow(() -> {
+                    findInventoryByProductCode(productCode);
+                    if (inventoryRepository.isKeptInLedger(productCode, now)){
+                        return new ValidationException("Product is reserved by the inventory ledger of another instance!");
+                    }
+                    return new ValidationException("Product is out of stock!");
                 });
     }
-    private void checkInventory(int available, int orderQuantity){
-        if (orderQuantity > available){
-            throw new ValidationException("Product is out of stock!");
-        }
-    }
 
     private void handleSuccess(Event event) {
         event.setStatus(ESagaStatus.SUCCESS);
@@ -136,4 +194,8 @@ public class InventoryService {
         addHistory(event, "Fail to update inventory: ".concat(message));
     }
 
+    private DataIntegrityViolationException handleDuplicatedEvent(Event event, DataIntegrityViolationException ex){
+        log.error("Event for orderId {} and transactionId {} was already processed: ", event.getOrderId(), event.getTransactionId(), ex);
+        return ex;
+    }
 }
@@ -1,20 +1,39 @@
 package br.com.microservices.orchestrated.orchestratorservice.config.kafka;
 
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+import br.com.microservices.orchestrated.sagacommons.codec.EventDecodeException;
+import br.com.microservices.orchestrated.sagacommons.kafka.SagaEventPublisher;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.DefaultAfterRollbackProcessor;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.micrometer.KafkaListenerObservation;
+import org.springframework.kafka.support.micrometer.KafkaListenerObservationConvention;
+import org.springframework.kafka.support.micrometer.KafkaRecordReceiverContext;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.*;
 
@@ -23,7 +42,11 @@ import static br.com.microservices.orchestrated.orchestratorservice.core.enums.E
 @RequiredArgsConstructor
 public class KafkaConfig {
     public static final int REPLICA_COUNT = 1;
-    public static final int PARTITION_COUNT = 1;
+    public static final String TOPIC_PARTITIONS_PROPERTY = "spring.kafka.partitions.%s";
+    public static final String LISTENER_THREAD_PREFIX = "kafka-listener-";
+    public static final String READ_COMMITTED = "read_committed";
+
+    private final Environment environment;
 
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
@@ -34,8 +57,47 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.auto-offset-reset}")
     private String autoOffsetReset;
 
+    @Value("${spring.kafka.partitions.default}")
+    private Integer partitionCount;
+
+    @Value("${spring.kafka.listener.concurrency}")
+    private Integer concurrency;
+
+    @Value("${spring.kafka.producer.acks}")
+    private String acks;
+
+    @Value("${spring.kafka.producer.linger-ms}")
+    private Integer lingerMs;
+
+    @Value("${spring.kafka.producer.batch-size}")
+    private Integer batchSize;
+
+    @Value("${spring.kafka.producer.compression-type}")
+    private String compressionType;
+
+    @Value("${spring.kafka.producer.delivery-timeout-ms}")
+    private Integer deliveryTimeoutMs;
+
+    @Value("${spring.kafka.producer.retry-backoff-ms}")
+    private Integer retryBackoffMs;
+
+    @Value("${spring.kafka.consumer.batch.max-size}")
+    private Integer batchMaxSize;
+
+    @Value("${spring.kafka.consumer.batch.max-wait-ms}")
+    private Integer batchMaxWaitMs;
+
+    @Value("${spring.kafka.consumer.batch.min-bytes}")
+    private Integer batchMinBytes;
+
+    @Value("${spring.kafka.exactly-once.enabled}")
+    private boolean exactlyOnceEnabled;
+
+    @Value("${spring.kafka.exactly-once.transaction-id-prefix}")
+    private String transactionIdPrefix;
+
     @Bean
-    public ConsumerFactory<String, String> consumerFactory(){
+    public ConsumerFactory<String, byte[]> consumerFactory(){
         return new DefaultKafkaConsumerFactory<>(consumerProps());
     }
 
@@ -44,37 +106,136 @@ public class KafkaConfig {
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffsetReset);
+        if (exactlyOnceEnabled){
+            props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, READ_COMMITTED);
+        }
         return props;
     }
 
     @Bean
-    public ProducerFactory<String, String> producerFactory(){
-        return new DefaultKafkaProducerFactory<>(producerProps());
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> kafkaListenerContainerFactory(ConsumerFactory<String, byte[]> consumerFactory,
+                                                                                                 ProducerFactory<String, byte[]> producerFactory){
+        var factory = new ConcurrentKafkaListenerContainerFactory<String, byte[]>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(concurrency);
+        factory.setCommonErrorHandler(createErrorHandler());
+        factory.getContainerProperties().setObservationEnabled(true);
+        factory.getContainerProperties().setObservationConvention(createListenerObservationConvention());
+        if (Threading.VIRTUAL.isActive(environment)){
+            factory.getContainerProperties().setListenerTaskExecutor(createVirtualThreadExecutor());
+        }
+        if (exactlyOnceEnabled){
+            factory.getContainerProperties().setTransactionManager(new KafkaTransactionManager<>(producerFactory));
+            factory.setAfterRollbackProcessor(createAfterRollbackProcessor());
+        }
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> batchKafkaListenerContainerFactory(ProducerFactory<String, byte[]> producerFactory){
+        var factory = new ConcurrentKafkaListenerContainerFactory<String, byte[]>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(batchConsumerProps()));
+        factory.setConcurrency(concurrency);
+        factory.setCommonErrorHandler(createErrorHandler());
+        factory.getContainerProperties().setObservationEnabled(true);
+        factory.getContainerProperties().setObservationConvention(createListenerObservationConvention());
+        if (Threading.VIRTUAL.isActive(environment)){
+            factory.getContainerProperties().setListenerTaskExecutor(createVirtualThreadExecutor());
+        }
+        if (exactlyOnceEnabled){
+            factory.getContainerProperties().setTransactionManager(new KafkaTransactionManager<>(producerFactory));
+            factory.setAfterRollbackProcessor(createAfterRollbackProcessor());
+        }
+        factory.setBatchListener(true);
+        return factory;
+    }
+
+    private Map<String, Object> batchConsumerProps(){
+        var props = consumerProps();
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchMaxSize);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, batchMaxWaitMs);
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, batchMinBytes);
+        return props;
+    }
+
+    private KafkaListenerObservationConvention createListenerObservationConvention(){
+        return new KafkaListenerObservation.DefaultKafkaListenerObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(KafkaRecordReceiverContext context) {
+                return super.getLowCardinalityKeyValues(context).and("topic", context.getSource());
+            }
+        };
+    }
+
+    private DefaultErrorHandler createErrorHandler(){
+        var errorHandler = new DefaultErrorHandler();
+        errorHandler.addNotRetryableExceptions(EventDecodeException.class);
+        return errorHandler;
+    }
+
+    private DefaultAfterRollbackProcessor<String, byte[]> createAfterRollbackProcessor(){
+        var afterRollbackProcessor = new DefaultAfterRollbackProcessor<String, byte[]>();
+        afterRollbackProcessor.addNotRetryableExceptions(EventDecodeException.class);
+        return afterRollbackProcessor;
+    }
+
+    private AsyncTaskExecutor createVirtualThreadExecutor(){
+        var executor = new SimpleAsyncTaskExecutor(LISTENER_THREAD_PREFIX);
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    @Bean
+    public ProducerFactory<String, byte[]> producerFactory(){
+        var producerFactory = new DefaultKafkaProducerFactory<String, byte[]>(producerProps());
+        if (exactlyOnceEnabled){
+            producerFactory.setTransactionIdPrefix(transactionIdPrefix);
+        }
+        return producerFactory;
     }
 
     private Map<String, Object> producerProps(){
         var props = new HashMap<String, Object>();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        props.put(ProducerConfig.ACKS_CONFIG, acks);
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        props.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, deliveryTimeoutMs);
+        props.put(ProducerConfig.RETRY_BACKOFF_MS_CONFIG, retryBackoffMs);
         return props;
     }
 
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate(ProducerFactory<String, String> producerFactory){
-        return new KafkaTemplate<>(producerFactory);
+    public KafkaTemplate<String, byte[]> kafkaTemplate(ProducerFactory<String, byte[]> producerFactory){
+        var kafkaTemplate = new KafkaTemplate<>(producerFactory);
+        kafkaTemplate.setAllowNonTransactional(exactlyOnceEnabled);
+        kafkaTemplate.setObservationEnabled(true);
+        return kafkaTemplate;
+    }
+
+    @Bean
+    public SagaEventPublisher sagaEventPublisher(KafkaTemplate<String, byte[]> kafkaTemplate, MeterRegistry meterRegistry){
+        return new SagaEventPublisher(kafkaTemplate, meterRegistry);
     }
 
     private NewTopic buildTopic(String name){
         return TopicBuilder
                 .name(name)
                 .replicas(REPLICA_COUNT)
-                .partitions(PARTITION_COUNT)
+                .partitions(getPartitionCount(name))
                 .build();
     }
 
+    private int getPartitionCount(String name){
+        return environment.getProperty(String.format(TOPIC_PARTITIONS_PROPERTY, name), Integer.class, partitionCount);
+    }
+
     @Bean
     public NewTopic startSagaTopic(){
         return buildTopic(START_SAGA.getTopic());
@@ -127,5 +288,12 @@ public class KafkaConfig {
         return buildTopic(NOTIFY_ENDING.getTopic());
     }
 
-
+    @Bean
+    public KafkaAdmin.NewTopics deadLetterTopics(){
+        return new KafkaAdmin.NewTopics(Stream
+                .of(ETopics.values())
+                .filter(topic -> START_SAGA != topic && BASE_ORCHESTRATOR != topic)
+                .map(topic -> buildTopic(SagaEventPublisher.deadLetterTopic(topic.getTopic())))
+                .toArray(NewTopic[]::new));
+    }
 }
@@ -0,0 +1,38 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.consumer;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.service.OrchestratorService;
+import br.com.microservices.orchestrated.sagacommons.codec.EventDecodeException;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(value = "spring.kafka.exactly-once.enabled", havingValue = "true")
+public class SagaOrchestratorBatchConsumer {
+
+    private final OrchestratorService orchestratorService;
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.orchestrator}",
+            containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    public void consumerOrchestratorEvents(List<ConsumerRecord<String, byte[]>> records){
+        log.info("Receiving batch of {} events from orchestrator topic", records.size());
+        records.forEach(record -> {
+            try {
+                orchestratorService.continueSaga(record.value(), record.headers());
+            }catch (EventDecodeException ex){
+                log.error("Erro trying to decode event at offset {} of partition {} from orchestrator topic, skipping it: {}",
+                        record.offset(), record.partition(), ex.getError(), ex);
+            }
+        });
+    }
+}
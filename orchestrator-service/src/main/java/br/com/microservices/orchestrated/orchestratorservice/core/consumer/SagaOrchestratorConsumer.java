@@ -1,9 +1,11 @@
 package br.com.microservices.orchestrated.orchestratorservice.core.consumer;
 
 import br.com.microservices.orchestrated.orchestratorservice.core.service.OrchestratorService;
-import br.com.microservices.orchestrated.orchestratorservice.core.utils.JsonUtil;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.sagacommons.codec.EventCodec;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
@@ -12,37 +14,36 @@ import org.springframework.stereotype.Component;
 @AllArgsConstructor
 public class SagaOrchestratorConsumer {
 
-    private final JsonUtil jsonUtil;
+    private final EventCodec<Event> eventCodec;
     private final OrchestratorService orchestratorService;
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.start-saga}"
     )
-    public void consumerStartSagaEvent(String paylad){
-        log.info("Receiving event {} from start-saga topic", paylad);
-        var event = jsonUtil.toEvent(paylad);
-        log.info(event.toString());
+    public void consumerStartSagaEvent(byte[] paylad){
+        var event = eventCodec.decode(paylad);
+        log.info("Receiving event {} from start-saga topic", event);
         orchestratorService.startSaga(event);
     }
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
-            topics = "${spring.kafka.topic.orchestrator}"
+            topics = "${spring.kafka.topic.orchestrator}",
+            autoStartup = "#{!${spring.kafka.exactly-once.enabled}}"
     )
-    public void consumerOrchestratorEvent(String paylad){
-        log.info("Receiving event {} from orchestrator topic", paylad);
-        var event = jsonUtil.toEvent(paylad);
-        orchestratorService.continueSaga(event);
+    public void consumerOrchestratorEvent(ConsumerRecord<String, byte[]> record){
+        log.info("Receiving event with key {} from orchestrator topic", record.key());
+        orchestratorService.continueSaga(record.value(), record.headers());
     }
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.finish-success}"
     )
-    public void consumerFinishSuccessEvent(String paylad){
-        log.info("Receiving event {} from finish-success topic", paylad);
-        var event = jsonUtil.toEvent(paylad);
+    public void consumerFinishSuccessEvent(byte[] paylad){
+        var event = eventCodec.decode(paylad);
+        log.info("Receiving event {} from finish-success topic", event);
         orchestratorService.finishSagaSuccess(event);
     }
 
@@ -50,10 +51,9 @@ public class SagaOrchestratorConsumer {
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.finish-fail}"
     )
-    public void consumerFinishFailEvent(String paylad){
-        log.info("Receiving event {} from finish-fail topic", paylad);
-        var event = jsonUtil.toEvent(paylad);
-        log.info(event.toString());
+    public void consumerFinishFailEvent(byte[] paylad){
+        var event = eventCodec.decode(paylad);
+        log.info("Receiving event {} from finish-fail topic", event);
         orchestratorService.finishSagaFail(event);
     }
 }
@@ -1,25 +1,55 @@
 package br.com.microservices.orchestrated.orchestratorservice.core.producer;
 
-import lombok.AllArgsConstructor;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.sagacommons.codec.EventCodec;
+import br.com.microservices.orchestrated.sagacommons.codec.EventHeader;
+import br.com.microservices.orchestrated.sagacommons.kafka.SagaEventPublisher;
+import br.com.microservices.orchestrated.sagacommons.kafka.SagaHeaders;
+import br.com.microservices.orchestrated.sagacommons.kafka.SagaStep;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
 import org.springframework.stereotype.Component;
 
-@Slf4j
+import java.util.List;
+
+import static org.springframework.util.ObjectUtils.isEmpty;
+
 @Component
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class SagaOrchestratorProducer {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private static final List<String> TRACE_HEADERS = List.of("traceparent", "tracestate");
+
+    private final SagaEventPublisher sagaEventPublisher;
+    private final EventCodec<Event> eventCodec;
+
+    public void sendEvent(Event event, String topic){
+        sendEvent(event, eventCodec.encode(event), topic, null);
+    }
+
+    public void sendEvent(Event event, byte[] payload, String topic, SagaStep step){
+        var record = new ProducerRecord<>(topic, event.getOrderId(), payload);
+        SagaHeaders.write(record.headers(), createEventHeader(event));
+        SagaHeaders.writeStep(record.headers(), step);
+        sagaEventPublisher.send(record);
+    }
+
+    public void forwardEvent(byte[] payload, Headers headers, String topic, String key, SagaStep step){
+        var forwardHeaders = new RecordHeaders(headers.toArray());
+        TRACE_HEADERS.forEach(forwardHeaders::remove);
+        SagaHeaders.writeStep(forwardHeaders, step);
+        sagaEventPublisher.send(new ProducerRecord<>(topic, null, key, payload, forwardHeaders));
+    }
 
-    public void sendEvent(String payload, String topic){
-        try {
-            log.info("Sending evento to topic {} with data {}", topic, payload);
-            kafkaTemplate.send(topic, payload);
-        }catch (Exception ex){
-            log.error("Erro trying to send data to topic {} with data {}", topic, payload, ex);
-        }
+    private EventHeader createEventHeader(Event event){
+        return new EventHeader(
+                event.getId(),
+                event.getTransactionId(),
+                event.getOrderId(),
+                isEmpty(event.getSource()) ? null : event.getSource().name(),
+                isEmpty(event.getStatus()) ? null : event.getStatus().name()
+        );
     }
 }
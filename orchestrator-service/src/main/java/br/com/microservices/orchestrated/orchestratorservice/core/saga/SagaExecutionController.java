@@ -3,14 +3,13 @@ package br.com.microservices.orchestrated.orchestratorservice.core.saga;
 import br.com.microservices.orchestrated.orchestratorservice.config.exception.ValidationException;
 import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
 import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus;
 import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+import br.com.microservices.orchestrated.sagacommons.codec.EventHeader;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
-
-import static br.com.microservices.orchestrated.orchestratorservice.core.saga.SagaHandler.*;
 import static org.springframework.util.ObjectUtils.isEmpty;
 
 
@@ -20,43 +19,63 @@ import static org.springframework.util.ObjectUtils.isEmpty;
 public class SagaExecutionController {
     private static final String SAGA_LOG_ID = "ORDER ID %s | TRASACTION ID %s | EVENT ID %s";
 
+    private final SagaHandler sagaHandler;
+
     public ETopics getNextTopic(Event event){
         if (isEmpty(event.getSource()) || isEmpty(event.getStatus())){
             throw new ValidationException("Source end status must be informed!");
         }
+        var sagaId = createSagaId(event.getPayload().getId(), event.getTransactionId(), event.getId());
+        return getNextTopic(event.getSource(), event.getStatus(), sagaId);
+    }
+
+    public ETopics getNextTopic(EventHeader header){
+        if (isEmpty(header.source()) || isEmpty(header.status())){
+            throw new ValidationException("Source end status must be informed!");
+        }
+        var sagaId = createSagaId(header.orderId(), header.transactionId(), header.id());
+        return getNextTopic(toSource(header.source()), toStatus(header.status()), sagaId);
+    }
 
-        var topic = findTopicBySourceAndStatus(event);
-        logCurrentSaga(event,topic);
+    private ETopics getNextTopic(EEventSource source, ESagaStatus status, String sagaId){
+        var topic = findTopicBySourceAndStatus(source, status);
+        logCurrentSaga(source, status, topic, sagaId);
         return topic;
     }
 
-    private ETopics findTopicBySourceAndStatus(Event event){
-        return (ETopics) Arrays.stream(SAGA_HANDLER)
-                .filter(row -> isEventSourceAndStatusValid(event, row))
-                .map(i -> i[TOPIC_INDEX])
-                .findFirst()
-                .orElseThrow(() -> new ValidationException("Topic not found!"));
+    private ETopics findTopicBySourceAndStatus(EEventSource source, ESagaStatus status){
+        var topic = sagaHandler.findTopic(source, status);
+        if (isEmpty(topic)){
+            throw new ValidationException("Topic not found!");
+        }
+        return topic;
     }
 
-    private boolean isEventSourceAndStatusValid(Event event, Object[] row){
-        var source = row[EVENT_SOURCE_INDEX];
-        var status = row[SAGA_STATUS_INDEX];
-        return event.getSource().equals(source) && event.getStatus().equals(status);
+    private EEventSource toSource(String source){
+        try {
+            return EEventSource.valueOf(source);
+        }catch (IllegalArgumentException ex){
+            throw new ValidationException("Source not found: ".concat(source));
+        }
     }
 
-    private void logCurrentSaga(Event event, ETopics eTopics){
-        var sagaId = createSagaId(event);
-        var source = event.getSource();
+    private ESagaStatus toStatus(String status){
+        try {
+            return ESagaStatus.valueOf(status);
+        }catch (IllegalArgumentException ex){
+            throw new ValidationException("Status not found: ".concat(status));
+        }
+    }
 
-        switch (event.getStatus()){
+    private void logCurrentSaga(EEventSource source, ESagaStatus status, ETopics eTopics, String sagaId){
+        switch (status){
             case SUCCESS -> log.info("### CURRENT SAGA: {} | SUCESS | NEXT TOPIC {} | {}", source, eTopics, sagaId);
             case ROLLBACK_PENDING -> log.info("### CURRENT SAGA: {} | SENDING TO ROLLBACK CURRENT SOURCE | NEXT TOPIC {} | {}", source, eTopics, sagaId);
             case FAIL -> log.info("### CURRENT SAGA: {} | SENDING TO ROLLBACK PREVIOUS SERVICE | NEXT TOPIC {} | {}", source, eTopics, sagaId);
         }
     }
 
-    private String createSagaId(Event event){
-        return String.format(SAGA_LOG_ID, event.getPayload().getId(),
-                event.getTransactionId(), event.getId());
+    private String createSagaId(String orderId, String transactionId, String eventId){
+        return String.format(SAGA_LOG_ID, orderId, transactionId, eventId);
     }
 }
@@ -1,34 +1,89 @@
 package br.com.microservices.orchestrated.orchestratorservice.core.saga;
 
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+import org.springframework.stereotype.Component;
+
 import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.*;
 import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.*;
 import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.*;
 
+@Component
 public final class SagaHandler {
 
+    private final ETopics[][] transitions = new ETopics[EEventSource.values().length][ESagaStatus.values().length];
+    private final EEventSource[] topicOwners = new EEventSource[ETopics.values().length];
+
     public SagaHandler() {
+        register(ORCHESTRATOR, SUCCESS, PRODUCT_VALIDATION_SUCCESS);
+        register(ORCHESTRATOR, FAIL, PRODUCT_VALIDATION_FAIL);
+
+        register(PRODUCT_VALIDATION_SERVICE, ROLLBACK_PENDING, PRODUCT_VALIDATION_FAIL);
+        register(PRODUCT_VALIDATION_SERVICE, FAIL, FINISH_FAIL);
+        register(PRODUCT_VALIDATION_SERVICE, SUCCESS, PAYMENT_SUCCESS);
+
+        register(PAYMENT_SERVICE, ROLLBACK_PENDING, PAYMENT_FAIL);
+        register(PAYMENT_SERVICE, FAIL, PRODUCT_VALIDATION_FAIL);
+        register(PAYMENT_SERVICE, SUCCESS, INVENTORY_SUCCESS);
+
+        register(INVENTORY_SERVICE, ROLLBACK_PENDING, INVENTORY_FAIL);
+        register(INVENTORY_SERVICE, FAIL, PAYMENT_FAIL);
+        register(INVENTORY_SERVICE, SUCCESS, FINISH_SUCCESS);
+
+        registerOwner(PRODUCT_VALIDATION_SUCCESS, PRODUCT_VALIDATION_SERVICE);
+        registerOwner(PRODUCT_VALIDATION_FAIL, PRODUCT_VALIDATION_SERVICE);
+        registerOwner(PAYMENT_SUCCESS, PAYMENT_SERVICE);
+        registerOwner(PAYMENT_FAIL, PAYMENT_SERVICE);
+        registerOwner(INVENTORY_SUCCESS, INVENTORY_SERVICE);
+        registerOwner(INVENTORY_FAIL, INVENTORY_SERVICE);
+
+        validateTransitions();
+    }
+
+    public ETopics findTopic(EEventSource source, ESagaStatus status) {
+        return transitions[source.ordinal()][status.ordinal()];
     }
 
-    public static final Object[][] SAGA_HANDLER = {
-            { ORCHESTRATOR,SUCCESS,PRODUCT_VALIDATION_SUCCESS },
-            { ORCHESTRATOR,FAIL, PRODUCT_VALIDATION_FAIL},
+    public EEventSource findTopicOwner(ETopics topic) {
+        return topicOwners[topic.ordinal()];
+    }
 
-            { PRODUCT_VALIDATION_SERVICE,ROLLBACK_PENDING, PRODUCT_VALIDATION_FAIL},
-            { PRODUCT_VALIDATION_SERVICE,FAIL, FINISH_FAIL},
-            { PRODUCT_VALIDATION_SERVICE,SUCCESS, PAYMENT_SUCCESS},
+    public boolean isCompensationTopic(ETopics topic) {
+        var owner = findTopicOwner(topic);
+        return owner != null && topic == findTopic(owner, ROLLBACK_PENDING);
+    }
 
-            { PAYMENT_SERVICE,ROLLBACK_PENDING, PAYMENT_FAIL},
-            { PAYMENT_SERVICE,FAIL, PRODUCT_VALIDATION_FAIL},
-            { PAYMENT_SERVICE,SUCCESS, INVENTORY_SUCCESS},
+    public boolean isExpectedOutcome(ETopics topic, EEventSource source, ESagaStatus status) {
+        var owner = findTopicOwner(topic);
+        if (owner == null || owner != source) {
+            return false;
+        }
+        return isCompensationTopic(topic) ? FAIL == status : FAIL != status;
+    }
 
-            { INVENTORY_SUCCESS,ROLLBACK_PENDING, INVENTORY_FAIL},
-            { INVENTORY_SERVICE,FAIL, PAYMENT_FAIL},
-            { INVENTORY_SERVICE,SUCCESS, FINISH_SUCCESS},
+    private void registerOwner(ETopics topic, EEventSource source) {
+        topicOwners[topic.ordinal()] = source;
+    }
 
+    private void register(EEventSource source, ESagaStatus status, ETopics topic) {
+        if (findTopic(source, status) != null) {
+            throw new IllegalStateException(String.format("Saga transition already registered for source %s and status %s", source, status));
+        }
+        transitions[source.ordinal()][status.ordinal()] = topic;
+    }
 
-    };
+    private void validateTransitions() {
+        for (var source : EEventSource.values()) {
+            for (var status : ESagaStatus.values()) {
+                if (isTransitionRequired(source, status) && findTopic(source, status) == null) {
+                    throw new IllegalStateException(String.format("Saga transition not registered for source %s and status %s", source, status));
+                }
+            }
+        }
+    }
 
-    public static final int EVENT_SOURCE_INDEX = 0;
-    public static final int SAGA_STATUS_INDEX = 1;
-    public static final int TOPIC_INDEX = 2;
+    private boolean isTransitionRequired(EEventSource source, ESagaStatus status) {
+        return !(ORCHESTRATOR == source && ROLLBACK_PENDING == status);
+    }
 }
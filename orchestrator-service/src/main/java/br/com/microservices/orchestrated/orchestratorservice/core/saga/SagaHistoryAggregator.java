@@ -0,0 +1,60 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.saga;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.History;
+import br.com.microservices.orchestrated.sagacommons.codec.EHistoryMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.springframework.util.ObjectUtils.isEmpty;
+
+@Component
+public class SagaHistoryAggregator {
+
+    private static final int OLDEST_STEP_INDEX = 1;
+
+    @Value("${saga.history.mode}")
+    private EHistoryMode historyMode;
+
+    @Value("${saga.history.max-entries}")
+    private int maxEntries;
+
+    public boolean isDeltaMode(){
+        return EHistoryMode.DELTA == historyMode;
+    }
+
+    public List<History> append(List<History> history, List<History> entries){
+        if (!isDeltaMode() || isEmpty(entries)){
+            return history;
+        }
+        var aggregated = isEmpty(history) ? new ArrayList<History>() : new ArrayList<>(history);
+        entries.forEach(entry -> addEntry(aggregated, entry));
+        return aggregated;
+    }
+
+    public List<History> complete(List<History> history, List<History> entries){
+        if (!isDeltaMode() || isEmpty(history)){
+            return entries;
+        }
+        return append(history, entries);
+    }
+
+    private void addEntry(List<History> entries, History entry){
+        if (!entries.isEmpty() && isSameStep(entries.get(entries.size() - 1), entry)){
+            return;
+        }
+        if (entries.size() >= maxEntries && entries.size() > OLDEST_STEP_INDEX){
+            entries.remove(OLDEST_STEP_INDEX);
+        }
+        entries.add(entry);
+    }
+
+    private boolean isSameStep(History last, History entry){
+        return last.getSource() == entry.getSource()
+                && last.getStatus() == entry.getStatus()
+                && Objects.equals(last.getMessage(), entry.getMessage());
+    }
+}
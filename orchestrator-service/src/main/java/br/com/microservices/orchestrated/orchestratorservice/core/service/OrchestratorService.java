@@ -7,12 +7,17 @@ import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaSta
 import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
 import br.com.microservices.orchestrated.orchestratorservice.core.producer.SagaOrchestratorProducer;
 import br.com.microservices.orchestrated.orchestratorservice.core.saga.SagaExecutionController;
-import br.com.microservices.orchestrated.orchestratorservice.core.utils.JsonUtil;
+import br.com.microservices.orchestrated.orchestratorservice.core.saga.SagaHistoryAggregator;
+import br.com.microservices.orchestrated.sagacommons.codec.EventCodec;
+import br.com.microservices.orchestrated.sagacommons.kafka.SagaHeaders;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.header.Headers;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.ORCHESTRATOR;
 import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.FAIL;
@@ -23,13 +28,19 @@ import static br.com.microservices.orchestrated.orchestratorservice.core.enums.E
 @AllArgsConstructor
 public class OrchestratorService {
 
-    private final JsonUtil jsonUtil;
+    private static final String SAGA_EVENTS_COUNTER = "saga.events";
+
+    private final EventCodec<Event> eventCodec;
     private final SagaOrchestratorProducer producer;
     private final SagaExecutionController sagaExecutionController;
+    private final SagaHistoryAggregator historyAggregator;
+    private final SagaStateService sagaStateService;
+    private final MeterRegistry meterRegistry;
 
     public void startSaga(Event event){
         event.setSource(ORCHESTRATOR);
         event.setStatus(SUCCESS);
+        countEvent(event.getSource().name(), event.getStatus().name());
         var topic = getTopics(event);
         log.info("SAGA STARTED!");
         addHistory(event, "Saga Started !");
@@ -40,24 +51,53 @@ public class OrchestratorService {
     public void finishSagaSuccess(Event event){
         event.setSource(ORCHESTRATOR);
         event.setStatus(SUCCESS);
-        log.info("SAGA FINISHED SUCCESSFULY FOR EVENT {}!", event.getId());
         addHistory(event, "Saga finished successfully!");
-        notifyFinishedSaga(event);
-
+        if (finishSaga(event)){
+            log.info("SAGA FINISHED SUCCESSFULY FOR EVENT {}!", event.getId());
+        }
     }
 
     public void finishSagaFail(Event event){
         event.setSource(ORCHESTRATOR);
         event.setStatus(FAIL);
-        log.info("SAGA FINISHED WITH ERRORS FOR EVENT {}!", event.getId());
         addHistory(event, "Saga finished with errors!");
+        if (finishSaga(event)){
+            log.info("SAGA FINISHED WITH ERRORS FOR EVENT {}!", event.getId());
+        }
+    }
+
+    public void continueSaga(byte[] payload, Headers headers){
+        var header = SagaHeaders
+                .read(headers)
+                .orElseGet(() -> eventCodec.decodeHeader(payload));
+        var topic = sagaExecutionController.getNextTopic(header);
+        var history = historyAggregator.isDeltaMode()
+                ? eventCodec.decodeHistory(payload, History.class)
+                : List.<History>of();
+        var transition = sagaStateService.advanceStep(header, SagaHeaders.readStep(headers), topic, payload, history);
+        if (transition.isEmpty()){
+            return;
+        }
+        if (!transition.get().replayed()){
+            countEvent(header.source(), header.status());
+        }
+        log.info("SAGA CONTINUE FOR EVENT {}", header.id());
+        producer.forwardEvent(payload, headers, topic.getTopic(), header.orderId(), transition.get().instance().toSagaStep());
+    }
+
+    private boolean finishSaga(Event event){
+        completeHistory(event);
+        if (!sagaStateService.finish(event.getTransactionId())){
+            log.warn("SAGA ALREADY FINISHED FOR TRANSACTION {}, IGNORING DUPLICATED FINISH EVENT {}", event.getTransactionId(), event.getId());
+            return false;
+        }
+        countEvent(event.getSource().name(), event.getStatus().name());
         notifyFinishedSaga(event);
+        return true;
     }
 
-    public void continueSaga(Event event){
-        var topic = getTopics(event);
-        log.info("SAGA CONTINUE FOR EVENT {}", event.getId());
-        sendToProducerWithTopic(event, topic);
+    private void countEvent(String source, String status){
+        meterRegistry.counter(SAGA_EVENTS_COUNTER, "source", source, "status", status).increment();
     }
 
     private ETopics getTopics(Event event){
@@ -75,12 +115,21 @@ public class OrchestratorService {
         event.addToHistory(history);
     }
 
+    private void completeHistory(Event event){
+        if (historyAggregator.isDeltaMode()){
+            event.setEventHistory(historyAggregator.complete(sagaStateService.findHistory(event.getTransactionId()), event.getEventHistory()));
+        }
+    }
+
     private void notifyFinishedSaga(Event event){
-        producer.sendEvent(jsonUtil.toJson(event), ETopics.NOTIFY_ENDING.getTopic());
+        producer.sendEvent(event, ETopics.NOTIFY_ENDING.getTopic());
     }
 
     private void sendToProducerWithTopic(Event event, ETopics topic){
-        producer.sendEvent(jsonUtil.toJson(event), topic.getTopic());
+        var payload = eventCodec.encode(event);
+        sagaStateService
+                .startStep(event, topic, payload)
+                .ifPresent(instance -> producer.sendEvent(event, payload, topic.getTopic(), instance.toSagaStep()));
     }
 
 }
@@ -0,0 +1,297 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.service;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.History;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+import br.com.microservices.orchestrated.orchestratorservice.core.producer.SagaOrchestratorProducer;
+import br.com.microservices.orchestrated.orchestratorservice.core.saga.SagaExecutionController;
+import br.com.microservices.orchestrated.orchestratorservice.core.saga.SagaHandler;
+import br.com.microservices.orchestrated.orchestratorservice.core.saga.SagaHistoryAggregator;
+import br.com.microservices.orchestrated.orchestratorservice.core.state.SagaInstance;
+import br.com.microservices.orchestrated.orchestratorservice.core.state.SagaStateStore;
+import br.com.microservices.orchestrated.orchestratorservice.core.state.SagaStepTransition;
+import br.com.microservices.orchestrated.orchestratorservice.core.timer.SagaTimeoutEvent;
+import br.com.microservices.orchestrated.orchestratorservice.core.timer.SagaTimerWheel;
+import br.com.microservices.orchestrated.sagacommons.codec.EventCodec;
+import br.com.microservices.orchestrated.sagacommons.codec.EventHeader;
+import br.com.microservices.orchestrated.sagacommons.kafka.SagaHeaders;
+import br.com.microservices.orchestrated.sagacommons.kafka.SagaStep;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.ORCHESTRATOR;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.FAIL;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.ROLLBACK_PENDING;
+import static org.springframework.util.ObjectUtils.isEmpty;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SagaStateService {
+
+    private static final String OPEN_SAGAS_GAUGE = "saga.open";
+    private static final String STEP_TIMEOUT_COUNTER = "saga.step.timeout";
+    private static final String REJECTED_OUTCOME_COUNTER = "saga.outcome.rejected";
+    private static final String RETRY_OUTCOME = "retry";
+    private static final String ESCALATE_OUTCOME = "escalate";
+    private static final int FIRST_ATTEMPT = 1;
+
+    private final SagaStateStore stateStore;
+    private final SagaTimerWheel timerWheel;
+    private final SagaHandler sagaHandler;
+    private final SagaExecutionController sagaExecutionController;
+    private final SagaHistoryAggregator historyAggregator;
+    private final SagaOrchestratorProducer producer;
+    private final EventCodec<Event> eventCodec;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${saga.timeout.step-ms}")
+    private long stepTimeoutMs;
+
+    @Value("${saga.timeout.max-attempts}")
+    private int maxAttempts;
+
+    @Value("${saga.timeout.backoff-multiplier}")
+    private double backoffMultiplier;
+
+    @Value("${saga.timeout.max-backoff-ms}")
+    private long maxBackoffMs;
+
+    @Value("${spring.kafka.exactly-once.enabled}")
+    private boolean exactlyOnce;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start(){
+        Gauge.builder(OPEN_SAGAS_GAUGE, stateStore, SagaStateStore::count).register(meterRegistry);
+        stateStore.forEach(this::scheduleTimeout);
+        log.info("Saga state store loaded with {} open sagas", stateStore.count());
+    }
+
+    public Optional<SagaInstance> startStep(Event event, ETopics topic, byte[] payload){
+        if (isEmpty(event.getTransactionId())){
+            return Optional.empty();
+        }
+        var now = LocalDateTime.now();
+        var instance = createStep(SagaInstance
+                .builder()
+                .transactionId(event.getTransactionId())
+                .startedAt(now)
+                .build(), createHeader(event), topic, payload, event.getEventHistory(), now);
+        if (!stateStore.create(instance)){
+            log.warn("SAGA ALREADY STARTED FOR TRANSACTION {}, IGNORING DUPLICATED START EVENT {}", event.getTransactionId(), event.getId());
+            return Optional.empty();
+        }
+        scheduleTimeout(instance);
+        return Optional.of(instance);
+    }
+
+    public Optional<SagaStepTransition> advanceStep(EventHeader header, Optional<SagaStep> outcomeStep, ETopics topic, byte[] payload, List<History> history){
+        var stored = stateStore.findByTransactionId(header.transactionId());
+        if (stored.isPresent() && isAppliedOutcome(stored.get(), header, outcomeStep, topic)){
+            log.info("EVENT {} FROM {} WAS ALREADY APPLIED FOR TRANSACTION {}, FORWARDING IT AGAIN", header.id(), header.source(), header.transactionId());
+            return Optional.of(new SagaStepTransition(stored.get(), true));
+        }
+        var current = stored.filter(instance -> isExpectedOutcome(instance, header, outcomeStep));
+        if (current.isEmpty()){
+            rejectOutcome(header, "it does not match the current saga step");
+            return Optional.empty();
+        }
+        var instance = createStep(current.get(), header, topic, payload, history, LocalDateTime.now());
+        if (!update(instance, current.get())){
+            rejectOutcome(header, "the saga step changed while it was handled");
+            return Optional.empty();
+        }
+        return Optional.of(new SagaStepTransition(instance, false));
+    }
+
+    public List<History> findHistory(String transactionId){
+        return stateStore
+                .findByTransactionId(transactionId)
+                .map(SagaInstance::getHistory)
+                .orElse(null);
+    }
+
+    public boolean finish(String transactionId){
+        if (isEmpty(transactionId)){
+            return true;
+        }
+        timerWheel.cancel(transactionId);
+        return stateStore.remove(transactionId);
+    }
+
+    @EventListener
+    public void handleTimeout(SagaTimeoutEvent timeoutEvent){
+        stateStore
+                .findByTransactionId(timeoutEvent.transactionId())
+                .filter(instance -> instance.getStep() == timeoutEvent.step() && instance.getAttempts() == timeoutEvent.attempt())
+                .ifPresent(this::handleStepTimeout);
+    }
+
+    private void handleStepTimeout(SagaInstance instance){
+        if (instance.getAttempts() < maxAttempts){
+            retry(instance);
+        } else {
+            compensate(instance);
+        }
+    }
+
+    private void retry(SagaInstance current){
+        var topic = current.getTopic();
+        var now = LocalDateTime.now();
+        var attempts = current.getAttempts() + 1;
+        var instance = current
+                .toBuilder()
+                .attempts(attempts)
+                .updatedAt(now)
+                .deadlineAt(now.plus(getStepTimeout(attempts), ChronoUnit.MILLIS))
+                .build();
+        if (!update(instance, current)){
+            return;
+        }
+        meterRegistry.counter(STEP_TIMEOUT_COUNTER, "topic", topic.getTopic(), "outcome", RETRY_OUTCOME).increment();
+        log.warn("SAGA STEP TIMED OUT ON TOPIC {} FOR TRANSACTION {}, RETRYING ATTEMPT {}", topic, instance.getTransactionId(), instance.getAttempts());
+        producer.forwardEvent(instance.getPayload(), createHeaders(instance), topic.getTopic(), instance.getOrderId(), instance.toSagaStep());
+    }
+
+    private void compensate(SagaInstance current){
+        var topic = current.getTopic();
+        var event = eventCodec.decode(current.getPayload());
+        ETopics nextTopic;
+        if (sagaHandler.isCompensationTopic(topic)){
+            event.setSource(ORCHESTRATOR);
+            event.setStatus(FAIL);
+            nextTopic = ETopics.FINISH_FAIL;
+        } else {
+            event.setSource(sagaHandler.findTopicOwner(topic));
+            event.setStatus(ROLLBACK_PENDING);
+            nextTopic = sagaExecutionController.getNextTopic(event);
+        }
+        var history = createHistory(event, "Saga step timed out on topic ".concat(topic.getTopic()));
+        event.addToHistory(history);
+        var payload = eventCodec.encode(event);
+        var instance = createStep(current, createHeader(event), nextTopic, payload, List.of(history), LocalDateTime.now());
+        if (!update(instance, current)){
+            return;
+        }
+        meterRegistry.counter(STEP_TIMEOUT_COUNTER, "topic", topic.getTopic(), "outcome", ESCALATE_OUTCOME).increment();
+        log.warn("SAGA STEP TIMED OUT ON TOPIC {} FOR TRANSACTION {} AFTER {} ATTEMPTS", topic, current.getTransactionId(), current.getAttempts());
+        producer.sendEvent(event, payload, nextTopic.getTopic(), instance.toSagaStep());
+    }
+
+    private SagaInstance createStep(SagaInstance current, EventHeader header, ETopics topic, byte[] payload, List<History> history, LocalDateTime now){
+        return current
+                .toBuilder()
+                .orderId(header.orderId())
+                .eventId(header.id())
+                .source(isEmpty(header.source()) ? null : EEventSource.valueOf(header.source()))
+                .status(isEmpty(header.status()) ? null : ESagaStatus.valueOf(header.status()))
+                .topic(topic)
+                .step(current.getStep() + 1)
+                .attempts(FIRST_ATTEMPT)
+                .payload(payload)
+                .updatedAt(now)
+                .deadlineAt(isTimed(topic) ? now.plus(getStepTimeout(FIRST_ATTEMPT), ChronoUnit.MILLIS) : null)
+                .history(historyAggregator.append(current.getHistory(), history))
+                .build();
+    }
+
+    private boolean update(SagaInstance instance, SagaInstance current){
+        if (!stateStore.update(instance, current.getStep(), current.getAttempts())){
+            return false;
+        }
+        scheduleTimeout(instance);
+        return true;
+    }
+
+    private boolean isExpectedOutcome(SagaInstance instance, EventHeader header, Optional<SagaStep> outcomeStep){
+        if (isEmpty(header.source()) || isEmpty(header.status())){
+            return false;
+        }
+        var source = EEventSource.valueOf(header.source());
+        var status = ESagaStatus.valueOf(header.status());
+        return sagaHandler.isExpectedOutcome(instance.getTopic(), source, status)
+                && outcomeStep
+                    .map(step -> step.step() == instance.getStep() && step.attempt() == instance.getAttempts())
+                    .orElse(true);
+    }
+
+    private boolean isAppliedOutcome(SagaInstance instance, EventHeader header, Optional<SagaStep> outcomeStep, ETopics topic){
+        return exactlyOnce
+                && instance.getTopic() == topic
+                && !isEmpty(instance.getSource()) && instance.getSource().name().equals(header.source())
+                && !isEmpty(instance.getStatus()) && instance.getStatus().name().equals(header.status())
+                && outcomeStep
+                    .map(step -> step.step() == instance.getStep() - 1)
+                    .orElse(false);
+    }
+
+    private void rejectOutcome(EventHeader header, String reason){
+        meterRegistry.counter(REJECTED_OUTCOME_COUNTER, "source", String.valueOf(header.source()), "status", String.valueOf(header.status())).increment();
+        log.warn("IGNORING EVENT {} FROM {} WITH STATUS {} FOR TRANSACTION {}, {}", header.id(), header.source(), header.status(), header.transactionId(), reason);
+    }
+
+    private EventHeader createHeader(Event event){
+        return new EventHeader(
+                event.getId(),
+                event.getTransactionId(),
+                event.getOrderId(),
+                isEmpty(event.getSource()) ? null : event.getSource().name(),
+                isEmpty(event.getStatus()) ? null : event.getStatus().name()
+        );
+    }
+
+    private History createHistory(Event event, String message){
+        return History
+                .builder()
+                .source(event.getSource())
+                .status(event.getStatus())
+                .message(message)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private Headers createHeaders(SagaInstance instance){
+        var headers = new RecordHeaders();
+        SagaHeaders.write(headers, new EventHeader(
+                instance.getEventId(),
+                instance.getTransactionId(),
+                instance.getOrderId(),
+                isEmpty(instance.getSource()) ? null : instance.getSource().name(),
+                isEmpty(instance.getStatus()) ? null : instance.getStatus().name()
+        ));
+        return headers;
+    }
+
+    private long getStepTimeout(int attempt){
+        return (long) Math.min(stepTimeoutMs * Math.pow(backoffMultiplier, attempt - 1), maxBackoffMs);
+    }
+
+    private boolean isTimed(ETopics topic){
+        return !isEmpty(sagaHandler.findTopicOwner(topic));
+    }
+
+    private void scheduleTimeout(SagaInstance instance){
+        if (isEmpty(instance.getDeadlineAt())){
+            timerWheel.cancel(instance.getTransactionId());
+            return;
+        }
+        var deadline = instance.getDeadlineAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        timerWheel.schedule(instance.getTransactionId(), instance.getStep(), instance.getAttempts(), deadline);
+    }
+}
@@ -0,0 +1,48 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.state;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+@Component
+@ConditionalOnProperty(value = "saga.state.store", havingValue = "memory")
+public class InMemorySagaStateStore implements SagaStateStore {
+
+    private final Map<String, SagaInstance> instances = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean create(SagaInstance instance) {
+        return instances.putIfAbsent(instance.getTransactionId(), instance) == null;
+    }
+
+    @Override
+    public boolean update(SagaInstance instance, int expectedStep, int expectedAttempts) {
+        var current = instances.computeIfPresent(instance.getTransactionId(), (transactionId, stored) ->
+                stored.getStep() == expectedStep && stored.getAttempts() == expectedAttempts ? instance : stored);
+        return current == instance;
+    }
+
+    @Override
+    public Optional<SagaInstance> findByTransactionId(String transactionId) {
+        return Optional.ofNullable(instances.get(transactionId));
+    }
+
+    @Override
+    public boolean remove(String transactionId) {
+        return instances.remove(transactionId) != null;
+    }
+
+    @Override
+    public long count() {
+        return instances.size();
+    }
+
+    @Override
+    public void forEach(Consumer<SagaInstance> action) {
+        instances.values().forEach(action);
+    }
+}
@@ -0,0 +1,182 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.state;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.History;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.springframework.util.ObjectUtils.isEmpty;
+
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(value = "saga.state.store", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcSagaStateStore implements SagaStateStore {
+
+    private static final String COLUMNS = "transaction_id, order_id, event_id, source, status, topic, step, attempts, payload, started_at, updated_at, deadline_at, history";
+    private static final String UPDATE = "UPDATE saga_instance SET order_id = ?, event_id = ?, source = ?, status = ?, topic = ?, step = ?, attempts = ?, payload = ?, started_at = ?, updated_at = ?, deadline_at = ?, history = ? WHERE transaction_id = ? AND step = ? AND attempts = ?";
+    private static final String INSERT = "INSERT INTO saga_instance (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_BY_TRANSACTION_ID = "SELECT " + COLUMNS + " FROM saga_instance WHERE transaction_id = ?";
+    private static final String SELECT_ALL = "SELECT " + COLUMNS + " FROM saga_instance";
+    private static final String DELETE = "DELETE FROM saga_instance WHERE transaction_id = ?";
+    private static final String COUNT = "SELECT COUNT(*) FROM saga_instance";
+    private static final String STORE_TIMER = "saga.state.store";
+    private static final TypeReference<List<History>> HISTORY_TYPE = new TypeReference<>() {};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public boolean create(SagaInstance instance) {
+        return timed("create", () -> insert(instance));
+    }
+
+    @Override
+    public boolean update(SagaInstance instance, int expectedStep, int expectedAttempts) {
+        return timed("update", () -> jdbcTemplate.update(UPDATE,
+                instance.getOrderId(),
+                instance.getEventId(),
+                toName(instance.getSource()),
+                toName(instance.getStatus()),
+                toName(instance.getTopic()),
+                instance.getStep(),
+                instance.getAttempts(),
+                instance.getPayload(),
+                toTimestamp(instance.getStartedAt()),
+                toTimestamp(instance.getUpdatedAt()),
+                toTimestamp(instance.getDeadlineAt()),
+                writeHistory(instance.getHistory()),
+                instance.getTransactionId(),
+                expectedStep,
+                expectedAttempts) > 0);
+    }
+
+    private boolean insert(SagaInstance instance) {
+        try {
+            return jdbcTemplate.update(INSERT,
+                    instance.getTransactionId(),
+                    instance.getOrderId(),
+                    instance.getEventId(),
+                    toName(instance.getSource()),
+                    toName(instance.getStatus()),
+                    toName(instance.getTopic()),
+                    instance.getStep(),
+                    instance.getAttempts(),
+                    instance.getPayload(),
+                    toTimestamp(instance.getStartedAt()),
+                    toTimestamp(instance.getUpdatedAt()),
+                    toTimestamp(instance.getDeadlineAt()),
+                    writeHistory(instance.getHistory())) > 0;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public Optional<SagaInstance> findByTransactionId(String transactionId) {
+        return timed("find", () -> jdbcTemplate
+                .query(SELECT_BY_TRANSACTION_ID, rowMapper(), transactionId)
+                .stream()
+                .findFirst());
+    }
+
+    @Override
+    public boolean remove(String transactionId) {
+        return timed("remove", () -> jdbcTemplate.update(DELETE, transactionId) > 0);
+    }
+
+    @Override
+    public long count() {
+        var count = jdbcTemplate.queryForObject(COUNT, Long.class);
+        return isEmpty(count) ? 0 : count;
+    }
+
+    @Override
+    public void forEach(Consumer<SagaInstance> action) {
+        var rowMapper = rowMapper();
+        jdbcTemplate.query(SELECT_ALL, resultSet -> {
+            action.accept(rowMapper.mapRow(resultSet, resultSet.getRow()));
+        });
+    }
+
+    private <T> T timed(String operation, Supplier<T> supplier) {
+        return meterRegistry.timer(STORE_TIMER, "operation", operation).record(supplier);
+    }
+
+    private RowMapper<SagaInstance> rowMapper() {
+        return (resultSet, rowNum) -> SagaInstance
+                .builder()
+                .transactionId(resultSet.getString("transaction_id"))
+                .orderId(resultSet.getString("order_id"))
+                .eventId(resultSet.getString("event_id"))
+                .source(toEnum(EEventSource.class, resultSet.getString("source")))
+                .status(toEnum(ESagaStatus.class, resultSet.getString("status")))
+                .topic(toEnum(ETopics.class, resultSet.getString("topic")))
+                .step(resultSet.getInt("step"))
+                .attempts(resultSet.getInt("attempts"))
+                .payload(resultSet.getBytes("payload"))
+                .startedAt(toLocalDateTime(resultSet, "started_at"))
+                .updatedAt(toLocalDateTime(resultSet, "updated_at"))
+                .deadlineAt(toLocalDateTime(resultSet, "deadline_at"))
+                .history(readHistory(resultSet.getBytes("history")))
+                .build();
+    }
+
+    private byte[] writeHistory(List<History> history) {
+        if (isEmpty(history)) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsBytes(history);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Erro trying to write saga history", ex);
+        }
+    }
+
+    private List<History> readHistory(byte[] history) {
+        if (isEmpty(history)) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(history, HISTORY_TYPE);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Erro trying to read saga history", ex);
+        }
+    }
+
+    private String toName(Enum<?> value) {
+        return isEmpty(value) ? null : value.name();
+    }
+
+    private <E extends Enum<E>> E toEnum(Class<E> type, String value) {
+        return isEmpty(value) ? null : Enum.valueOf(type, value);
+    }
+
+    private Timestamp toTimestamp(LocalDateTime value) {
+        return isEmpty(value) ? null : Timestamp.valueOf(value);
+    }
+
+    private LocalDateTime toLocalDateTime(ResultSet resultSet, String column) throws SQLException {
+        var timestamp = resultSet.getTimestamp(column);
+        return isEmpty(timestamp) ? null : timestamp.toLocalDateTime();
+    }
+}
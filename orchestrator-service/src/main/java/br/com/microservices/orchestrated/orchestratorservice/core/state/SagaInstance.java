@@ -0,0 +1,39 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.state;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.History;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+import br.com.microservices.orchestrated.sagacommons.kafka.SagaStep;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor
+public class SagaInstance {
+
+    private String transactionId;
+    private String orderId;
+    private String eventId;
+    private EEventSource source;
+    private ESagaStatus status;
+    private ETopics topic;
+    private int step;
+    private int attempts;
+    private byte[] payload;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime deadlineAt;
+    private List<History> history;
+
+    public SagaStep toSagaStep(){
+        return new SagaStep(step, attempts);
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.state;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+
+public interface SagaStateStore {
+
+    boolean create(SagaInstance instance);
+
+    boolean update(SagaInstance instance, int expectedStep, int expectedAttempts);
+
+    Optional<SagaInstance> findByTransactionId(String transactionId);
+
+    boolean remove(String transactionId);
+
+    long count();
+
+    void forEach(Consumer<SagaInstance> action);
+}
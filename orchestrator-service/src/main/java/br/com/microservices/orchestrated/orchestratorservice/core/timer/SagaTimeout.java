@@ -0,0 +1,25 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.timer;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Getter
+@RequiredArgsConstructor
+public class SagaTimeout {
+
+    private final String transactionId;
+    private final int step;
+    private final int attempt;
+    private final long expireTick;
+    private final AtomicBoolean done = new AtomicBoolean();
+
+    public boolean complete(){
+        return done.compareAndSet(false, true);
+    }
+
+    public boolean isDone(){
+        return done.get();
+    }
+}
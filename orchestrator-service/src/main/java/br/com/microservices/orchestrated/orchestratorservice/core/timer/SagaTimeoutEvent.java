@@ -0,0 +1,4 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.timer;
+
+public record SagaTimeoutEvent(String transactionId, int step, int attempt) {
+}
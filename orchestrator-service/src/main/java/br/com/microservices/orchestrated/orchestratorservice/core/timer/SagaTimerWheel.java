@@ -0,0 +1,140 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.timer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SagaTimerWheel {
+
+    private static final String THREAD_NAME = "saga-timer-wheel";
+    private static final String HANDLER_THREAD_NAME = "saga-timer-handler-";
+    private static final String PENDING_TIMERS_GAUGE = "saga.timer.pending";
+    private static final String FIRING_TIMERS_GAUGE = "saga.timer.firing";
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, SagaTimeout> timeouts = new ConcurrentHashMap<>();
+    private final AtomicLong pending = new AtomicLong();
+
+    @Value("${saga.timeout.tick-ms}")
+    private long tickMs;
+
+    @Value("${saga.timeout.wheel-size}")
+    private int wheelSize;
+
+    @Value("${saga.timeout.handler-threads}")
+    private int handlerThreads;
+
+    private List<Queue<SagaTimeout>> buckets;
+    private ScheduledExecutorService executor;
+    private ThreadPoolExecutor handlerExecutor;
+    private long startTime;
+    private volatile long currentTick;
+
+    @PostConstruct
+    public void start(){
+        buckets = IntStream
+                .range(0, wheelSize)
+                .<Queue<SagaTimeout>>mapToObj(index -> new ConcurrentLinkedQueue<>())
+                .toList();
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        var handlerThreadCount = new AtomicInteger();
+        handlerExecutor = new ThreadPoolExecutor(handlerThreads, handlerThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    var thread = new Thread(runnable, HANDLER_THREAD_NAME + handlerThreadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        startTime = System.currentTimeMillis();
+        Gauge.builder(PENDING_TIMERS_GAUGE, pending, AtomicLong::get).register(meterRegistry);
+        Gauge.builder(FIRING_TIMERS_GAUGE, handlerExecutor, pool -> pool.getQueue().size() + pool.getActiveCount()).register(meterRegistry);
+        executor.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop(){
+        executor.shutdownNow();
+        handlerExecutor.shutdownNow();
+    }
+
+    public void schedule(String transactionId, int step, int attempt, long deadline){
+        var expireTick = Math.max(toTick(deadline), currentTick + 1);
+        var timeout = new SagaTimeout(transactionId, step, attempt, expireTick);
+        pending.incrementAndGet();
+        complete(timeouts.put(transactionId, timeout));
+        buckets.get(toBucket(expireTick)).add(timeout);
+    }
+
+    public void cancel(String transactionId){
+        complete(timeouts.remove(transactionId));
+    }
+
+    private void tick(){
+        var tick = currentTick + 1;
+        var iterator = buckets.get(toBucket(tick)).iterator();
+        while (iterator.hasNext()){
+            var timeout = iterator.next();
+            if (timeout.isDone()){
+                iterator.remove();
+            } else if (timeout.getExpireTick() <= tick){
+                iterator.remove();
+                timeouts.remove(timeout.getTransactionId(), timeout);
+                if (complete(timeout)){
+                    handlerExecutor.execute(() -> fire(timeout));
+                }
+            }
+        }
+        currentTick = tick;
+    }
+
+    private boolean complete(SagaTimeout timeout){
+        if (timeout != null && timeout.complete()){
+            pending.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    private void fire(SagaTimeout timeout){
+        try {
+            eventPublisher.publishEvent(new SagaTimeoutEvent(timeout.getTransactionId(), timeout.getStep(), timeout.getAttempt()));
+        }catch (Exception ex){
+            log.error("Erro trying to handle timeout for transaction {}", timeout.getTransactionId(), ex);
+        }
+    }
+
+    private long toTick(long deadline){
+        return (deadline - startTime + tickMs - 1) / tickMs;
+    }
+
+    private int toBucket(long tick){
+        return (int) (tick % wheelSize);
+    }
+}
@@ -0,0 +1,15 @@
+CREATE TABLE IF NOT EXISTS saga_instance (
+    transaction_id VARCHAR(100) PRIMARY KEY,
+    order_id VARCHAR(100),
+    event_id VARCHAR(100),
+    source VARCHAR(50),
+    status VARCHAR(50),
+    topic VARCHAR(50),
+    step INT NOT NULL,
+    attempts INT NOT NULL,
+    payload BYTEA,
+    started_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    deadline_at TIMESTAMP,
+    history BYTEA
+);
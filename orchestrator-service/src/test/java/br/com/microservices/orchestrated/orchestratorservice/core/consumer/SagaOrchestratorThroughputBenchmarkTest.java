@@ -0,0 +1,227 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.consumer;
+
+import br.com.microservices.orchestrated.orchestratorservice.OrchestratorServiceApplication;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Order;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.OrderProducts;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Product;
+import br.com.microservices.orchestrated.orchestratorservice.core.state.SagaInstance;
+import br.com.microservices.orchestrated.orchestratorservice.core.state.SagaStateStore;
+import br.com.microservices.orchestrated.sagacommons.codec.EventCodec;
+import br.com.microservices.orchestrated.sagacommons.codec.EventHeader;
+import br.com.microservices.orchestrated.sagacommons.kafka.SagaHeaders;
+import br.com.microservices.orchestrated.sagacommons.kafka.SagaStep;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.ORCHESTRATOR;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.PRODUCT_VALIDATION_SERVICE;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.SUCCESS;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.BASE_ORCHESTRATOR;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.PAYMENT_SUCCESS;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.PRODUCT_VALIDATION_SUCCESS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@EmbeddedKafka(partitions = 1, brokerProperties = {
+        "transaction.state.log.replication.factor=1",
+        "transaction.state.log.min.isr=1"
+})
+class SagaOrchestratorThroughputBenchmarkTest {
+
+    private static final int WARMUP_SAGAS = 2_000;
+    private static final int SAGAS = 5_000;
+    private static final int PRODUCTS_PER_ORDER = 3;
+    private static final long TIMEOUT_MS = TimeUnit.MINUTES.toMillis(2);
+
+    @Test
+    void shouldRouteEveryOutcomeOnceAndCompareThroughputWithExactlyOnce(EmbeddedKafkaBroker broker){
+        var atLeastOnce = run(broker, "at-least-once", false);
+        var exactlyOnce = run(broker, "exactly-once", true);
+
+        System.out.printf("Orchestrator throughput: at-least-once %.0f events/s, exactly-once %.0f events/s (%.2fx)%n",
+                atLeastOnce, exactlyOnce, exactlyOnce / atLeastOnce);
+    }
+
+    private double run(EmbeddedKafkaBroker broker, String mode, boolean exactlyOnce){
+        try (var context = startOrchestrator(broker, mode, exactlyOnce)){
+            waitForOrchestratorListener(context);
+            route(broker, context, mode + "-warmup", WARMUP_SAGAS);
+
+            var start = System.nanoTime();
+            route(broker, context, mode + "-measured", SAGAS);
+            var elapsedNanos = System.nanoTime() - start;
+
+            var throughput = SAGAS / (elapsedNanos / 1_000_000_000.0);
+            System.out.printf("Orchestrator %s: %d outcomes routed in %d ms, %.0f events/s%n",
+                    mode, SAGAS, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), throughput);
+            return throughput;
+        }
+    }
+
+    private void route(EmbeddedKafkaBroker broker, ConfigurableApplicationContext context, String prefix, int sagas){
+        var eventCodec = getEventCodec(context);
+        var stateStore = context.getBean(SagaStateStore.class);
+        var outcomes = new ArrayList<ProducerRecord<String, byte[]>>();
+        for (var index = 0; index < sagas; index++){
+            var event = createEvent(prefix + "-" + index);
+            stateStore.create(createInstance(event, eventCodec.encode(event)));
+            event.setSource(PRODUCT_VALIDATION_SERVICE);
+            event.setStatus(SUCCESS);
+            outcomes.add(createOutcome(event, eventCodec.encode(event)));
+        }
+        try (var producer = new KafkaProducer<String, byte[]>(producerProps(broker))){
+            outcomes.forEach(producer::send);
+        }
+        assertEquals(sagas, awaitForwarded(broker, prefix, sagas), "Every outcome must be routed exactly once for " + prefix);
+    }
+
+    private ConfigurableApplicationContext startOrchestrator(EmbeddedKafkaBroker broker, String mode, boolean exactlyOnce){
+        return new SpringApplicationBuilder(OrchestratorServiceApplication.class).run(
+                "--server.port=0",
+                "--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+                "--spring.kafka.consumer.auto-offset-reset=earliest",
+                "--spring.kafka.exactly-once.enabled=" + exactlyOnce,
+                "--spring.datasource.url=jdbc:h2:mem:" + mode + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--saga.timeout.step-ms=" + TIMEOUT_MS,
+                "--management.tracing.sampling.probability=0.0",
+                "--logging.level.root=WARN"
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    private EventCodec<Event> getEventCodec(ConfigurableApplicationContext context){
+        return context.getBean(EventCodec.class);
+    }
+
+    private void waitForOrchestratorListener(ConfigurableApplicationContext context){
+        context.getBean(KafkaListenerEndpointRegistry.class)
+                .getListenerContainers()
+                .stream()
+                .filter(container -> container.isRunning()
+                        && List.of(container.getContainerProperties().getTopics()).contains(BASE_ORCHESTRATOR.getTopic()))
+                .forEach(container -> ContainerTestUtils.waitForAssignment(container, 1));
+    }
+
+    private long awaitForwarded(EmbeddedKafkaBroker broker, String prefix, int sagas){
+        var keys = new HashSet<String>();
+        var received = 0L;
+        var deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        try (var consumer = new KafkaConsumer<String, byte[]>(consumerProps(broker, prefix))){
+            consumer.subscribe(List.of(PAYMENT_SUCCESS.getTopic()));
+            while (received < sagas && System.currentTimeMillis() < deadline){
+                for (var record : consumer.poll(Duration.ofMillis(100))){
+                    if (record.key().startsWith(prefix + "-")){
+                        keys.add(record.key());
+                        received++;
+                    }
+                }
+            }
+        }
+        assertEquals(received, keys.size(), "Outcomes were routed more than once for " + prefix);
+        return received;
+    }
+
+    private Event createEvent(String orderId){
+        var products = IntStream
+                .range(0, PRODUCTS_PER_ORDER)
+                .mapToObj(index -> new OrderProducts(new Product("PRODUCT_" + index, 10.0 * (index + 1)), index + 1))
+                .toList();
+        var now = LocalDateTime.now();
+        return Event
+                .builder()
+                .id(UUID.randomUUID().toString())
+                .transactionId(UUID.randomUUID().toString())
+                .orderId(orderId)
+                .payload(Order
+                        .builder()
+                        .id(orderId)
+                        .products(products)
+                        .createdAt(now)
+                        .totalAmount(140.0)
+                        .totalItems(6)
+                        .build())
+                .source(ORCHESTRATOR)
+                .status(SUCCESS)
+                .eventHistory(new ArrayList<>())
+                .createdAt(now)
+                .build();
+    }
+
+    private SagaInstance createInstance(Event event, byte[] payload){
+        var now = LocalDateTime.now();
+        return SagaInstance
+                .builder()
+                .transactionId(event.getTransactionId())
+                .orderId(event.getOrderId())
+                .eventId(event.getId())
+                .source(event.getSource())
+                .status(event.getStatus())
+                .topic(PRODUCT_VALIDATION_SUCCESS)
+                .step(1)
+                .attempts(1)
+                .payload(payload)
+                .startedAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    private ProducerRecord<String, byte[]> createOutcome(Event event, byte[] payload){
+        var record = new ProducerRecord<>(BASE_ORCHESTRATOR.getTopic(), event.getOrderId(), payload);
+        SagaHeaders.write(record.headers(), new EventHeader(
+                event.getId(),
+                event.getTransactionId(),
+                event.getOrderId(),
+                event.getSource().name(),
+                event.getStatus().name()
+        ));
+        SagaHeaders.writeStep(record.headers(), new SagaStep(1, 1));
+        return record;
+    }
+
+    private Map<String, Object> producerProps(EmbeddedKafkaBroker broker){
+        return Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class,
+                ProducerConfig.LINGER_MS_CONFIG, 5
+        );
+    }
+
+    private Map<String, Object> consumerProps(EmbeddedKafkaBroker broker, String prefix){
+        return Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ConsumerConfig.GROUP_ID_CONFIG, "throughput-benchmark-" + prefix,
+                ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest",
+                ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed",
+                ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+                ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class
+        );
+    }
+}
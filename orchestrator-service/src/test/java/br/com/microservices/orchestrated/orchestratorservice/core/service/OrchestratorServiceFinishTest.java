@@ -0,0 +1,142 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.service;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.History;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.producer.SagaOrchestratorProducer;
+import br.com.microservices.orchestrated.orchestratorservice.core.saga.SagaExecutionController;
+import br.com.microservices.orchestrated.orchestratorservice.core.saga.SagaHandler;
+import br.com.microservices.orchestrated.orchestratorservice.core.saga.SagaHistoryAggregator;
+import br.com.microservices.orchestrated.orchestratorservice.core.state.InMemorySagaStateStore;
+import br.com.microservices.orchestrated.orchestratorservice.core.state.SagaInstance;
+import br.com.microservices.orchestrated.orchestratorservice.core.timer.SagaTimerWheel;
+import br.com.microservices.orchestrated.sagacommons.codec.EHistoryMode;
+import br.com.microservices.orchestrated.sagacommons.codec.EWireFormat;
+import br.com.microservices.orchestrated.sagacommons.codec.EventCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.INVENTORY_SERVICE;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.ORCHESTRATOR;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.PAYMENT_SERVICE;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.PRODUCT_VALIDATION_SERVICE;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.FAIL;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.SUCCESS;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.FINISH_FAIL;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.FINISH_SUCCESS;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.NOTIFY_ENDING;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class OrchestratorServiceFinishTest {
+
+    private static final String TRANSACTION_ID = "transaction-1";
+
+    private final InMemorySagaStateStore stateStore = new InMemorySagaStateStore();
+    private final SagaOrchestratorProducer producer = mock(SagaOrchestratorProducer.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OrchestratorService orchestratorService;
+
+    @BeforeEach
+    void setUp(){
+        var historyAggregator = new SagaHistoryAggregator();
+        ReflectionTestUtils.setField(historyAggregator, "historyMode", EHistoryMode.DELTA);
+        ReflectionTestUtils.setField(historyAggregator, "maxEntries", 50);
+        var eventCodec = new EventCodec<>(new ObjectMapper().findAndRegisterModules(), Event.class, EWireFormat.JSON, EHistoryMode.DELTA);
+        var sagaExecutionController = mock(SagaExecutionController.class);
+        var sagaStateService = new SagaStateService(stateStore, mock(SagaTimerWheel.class), mock(SagaHandler.class),
+                sagaExecutionController, historyAggregator, producer, eventCodec, meterRegistry);
+        orchestratorService = new OrchestratorService(eventCodec, producer, sagaExecutionController, historyAggregator,
+                sagaStateService, meterRegistry);
+    }
+
+    @Test
+    void shouldNotifyEndingOnceWhenTheSameFinishSuccessArrivesTwice(){
+        stateStore.create(createInstance(List.of(
+                createHistory(ORCHESTRATOR),
+                createHistory(PRODUCT_VALIDATION_SERVICE),
+                createHistory(PAYMENT_SERVICE),
+                createHistory(INVENTORY_SERVICE))));
+
+        orchestratorService.finishSagaSuccess(createFinishEvent());
+        orchestratorService.finishSagaSuccess(createFinishEvent());
+
+        var notified = ArgumentCaptor.forClass(Event.class);
+        verify(producer, times(1)).sendEvent(notified.capture(), eq(NOTIFY_ENDING.getTopic()));
+        assertEquals(5, notified.getValue().getEventHistory().size());
+        assertEquals(1.0, meterRegistry.counter("saga.events", "source", ORCHESTRATOR.name(), "status", SUCCESS.name()).count());
+        assertEquals(0, stateStore.count());
+    }
+
+    @Test
+    void shouldNotifyEndingOnceWhenTheSameFinishFailArrivesTwice(){
+        stateStore.create(createInstance(List.of(createHistory(ORCHESTRATOR), createHistory(PRODUCT_VALIDATION_SERVICE)))
+                .toBuilder()
+                .topic(FINISH_FAIL)
+                .build());
+
+        orchestratorService.finishSagaFail(createFinishEvent());
+        orchestratorService.finishSagaFail(createFinishEvent());
+
+        var notified = ArgumentCaptor.forClass(Event.class);
+        verify(producer, times(1)).sendEvent(notified.capture(), eq(NOTIFY_ENDING.getTopic()));
+        assertEquals(FAIL, notified.getValue().getStatus());
+        assertEquals(4, notified.getValue().getEventHistory().size());
+        assertEquals(1.0, meterRegistry.counter("saga.events", "source", ORCHESTRATOR.name(), "status", FAIL.name()).count());
+    }
+
+    private SagaInstance createInstance(List<History> history){
+        var now = LocalDateTime.now();
+        return SagaInstance
+                .builder()
+                .transactionId(TRANSACTION_ID)
+                .orderId("order-1")
+                .eventId("event-1")
+                .source(INVENTORY_SERVICE)
+                .status(SUCCESS)
+                .topic(FINISH_SUCCESS)
+                .step(5)
+                .attempts(1)
+                .startedAt(now)
+                .updatedAt(now)
+                .history(history)
+                .build();
+    }
+
+    private Event createFinishEvent(){
+        var eventHistory = new ArrayList<History>();
+        eventHistory.add(createHistory(INVENTORY_SERVICE));
+        return Event
+                .builder()
+                .id("event-1")
+                .transactionId(TRANSACTION_ID)
+                .orderId("order-1")
+                .source(INVENTORY_SERVICE)
+                .status(SUCCESS)
+                .eventHistory(eventHistory)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private History createHistory(EEventSource source){
+        return History
+                .builder()
+                .source(source)
+                .status(SUCCESS)
+                .message("Step executed by " + source)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
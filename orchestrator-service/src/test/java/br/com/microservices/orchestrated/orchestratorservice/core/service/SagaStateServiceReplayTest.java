@@ -0,0 +1,106 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.service;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.producer.SagaOrchestratorProducer;
+import br.com.microservices.orchestrated.orchestratorservice.core.saga.SagaExecutionController;
+import br.com.microservices.orchestrated.orchestratorservice.core.saga.SagaHandler;
+import br.com.microservices.orchestrated.orchestratorservice.core.saga.SagaHistoryAggregator;
+import br.com.microservices.orchestrated.orchestratorservice.core.state.InMemorySagaStateStore;
+import br.com.microservices.orchestrated.orchestratorservice.core.state.SagaInstance;
+import br.com.microservices.orchestrated.orchestratorservice.core.state.SagaStepTransition;
+import br.com.microservices.orchestrated.orchestratorservice.core.timer.SagaTimerWheel;
+import br.com.microservices.orchestrated.sagacommons.codec.EHistoryMode;
+import br.com.microservices.orchestrated.sagacommons.codec.EWireFormat;
+import br.com.microservices.orchestrated.sagacommons.codec.EventCodec;
+import br.com.microservices.orchestrated.sagacommons.codec.EventHeader;
+import br.com.microservices.orchestrated.sagacommons.kafka.SagaStep;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.PRODUCT_VALIDATION_SERVICE;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.SUCCESS;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.PAYMENT_SUCCESS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class SagaStateServiceReplayTest {
+
+    private static final String TRANSACTION_ID = "transaction-1";
+
+    private final InMemorySagaStateStore stateStore = new InMemorySagaStateStore();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private SagaStateService sagaStateService;
+
+    @BeforeEach
+    void setUp(){
+        var historyAggregator = new SagaHistoryAggregator();
+        ReflectionTestUtils.setField(historyAggregator, "historyMode", EHistoryMode.FULL);
+        var eventCodec = new EventCodec<>(new ObjectMapper().findAndRegisterModules(), Event.class, EWireFormat.JSON);
+        sagaStateService = new SagaStateService(stateStore, mock(SagaTimerWheel.class), mock(SagaHandler.class),
+                mock(SagaExecutionController.class), historyAggregator, mock(SagaOrchestratorProducer.class), eventCodec, meterRegistry);
+        stateStore.create(createAppliedInstance());
+    }
+
+    @Test
+    void shouldForwardAnAppliedOutcomeAgainInExactlyOnceModeWhenItsStepMatches(){
+        ReflectionTestUtils.setField(sagaStateService, "exactlyOnce", true);
+
+        var transition = advance(Optional.of(new SagaStep(1, 1)));
+
+        assertTrue(transition.isPresent());
+        assertTrue(transition.get().replayed());
+        assertEquals(2, transition.get().instance().getStep());
+    }
+
+    @Test
+    void shouldRejectAnAppliedOutcomeWithoutStepHeaderInExactlyOnceMode(){
+        ReflectionTestUtils.setField(sagaStateService, "exactlyOnce", true);
+
+        assertTrue(advance(Optional.empty()).isEmpty());
+        assertEquals(1.0, rejectedCount());
+    }
+
+    @Test
+    void shouldRejectAnAppliedOutcomeInAtLeastOnceMode(){
+        ReflectionTestUtils.setField(sagaStateService, "exactlyOnce", false);
+
+        assertTrue(advance(Optional.of(new SagaStep(1, 1))).isEmpty());
+        assertEquals(1.0, rejectedCount());
+        assertEquals(2, stateStore.findByTransactionId(TRANSACTION_ID).orElseThrow().getStep());
+    }
+
+    private Optional<SagaStepTransition> advance(Optional<SagaStep> outcomeStep){
+        var header = new EventHeader("event-1", TRANSACTION_ID, "order-1", PRODUCT_VALIDATION_SERVICE.name(), SUCCESS.name());
+        return sagaStateService.advanceStep(header, outcomeStep, PAYMENT_SUCCESS, new byte[0], List.of());
+    }
+
+    private double rejectedCount(){
+        return meterRegistry.counter("saga.outcome.rejected", "source", PRODUCT_VALIDATION_SERVICE.name(), "status", SUCCESS.name()).count();
+    }
+
+    private SagaInstance createAppliedInstance(){
+        var now = LocalDateTime.now();
+        return SagaInstance
+                .builder()
+                .transactionId(TRANSACTION_ID)
+                .orderId("order-1")
+                .eventId("event-1")
+                .source(PRODUCT_VALIDATION_SERVICE)
+                .status(SUCCESS)
+                .topic(PAYMENT_SUCCESS)
+                .step(2)
+                .attempts(1)
+                .startedAt(now)
+                .updatedAt(now)
+                .build();
+    }
+}
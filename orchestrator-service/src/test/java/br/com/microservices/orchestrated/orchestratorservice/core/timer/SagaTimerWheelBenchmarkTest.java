@@ -0,0 +1,116 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.timer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SagaTimerWheelBenchmarkTest {
+
+    private static final int WARMUP_SAGAS = 200_000;
+    private static final int SMALL_SAGAS = 100_000;
+    private static final int LARGE_SAGAS = 1_000_000;
+    private static final long TICK_MS = 10;
+    private static final int WHEEL_SIZE = 512;
+    private static final String PENDING_TIMERS_GAUGE = "saga.timer.pending";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SagaTimerWheel timerWheel;
+
+    @AfterEach
+    void tearDown(){
+        timerWheel.stop();
+    }
+
+    @Test
+    void shouldKeepSchedulingCostPerSagaConstantWithMillionsOfPendingTimers(){
+        timerWheel = createTimerWheel(event -> {}, 1);
+        var deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(10);
+        scheduleAndCancel("warmup", WARMUP_SAGAS, deadline);
+
+        var small = scheduleAndCancel("small", SMALL_SAGAS, deadline);
+        var large = scheduleAndCancel("large", LARGE_SAGAS, deadline);
+
+        assertTrue(large < small * 5,
+                String.format("Scheduling cost per saga grew from %d ns to %d ns with more pending timers", small, large));
+    }
+
+    @Test
+    void shouldFireExpiredTimeoutsWhileAnotherTimeoutIsStillBeingHandled() throws InterruptedException {
+        var release = new CountDownLatch(1);
+        var fired = new CountDownLatch(3);
+        var firedTransactions = new CopyOnWriteArrayList<String>();
+        timerWheel = createTimerWheel(event -> {
+            var timeout = (SagaTimeoutEvent) event;
+            if ("slow".equals(timeout.transactionId())){
+                awaitQuietly(release);
+                return;
+            }
+            firedTransactions.add(timeout.transactionId());
+            fired.countDown();
+        }, 2);
+        var now = System.currentTimeMillis();
+        timerWheel.schedule("slow", 1, 1, now);
+        List.of("fast-1", "fast-2", "fast-3").forEach(transactionId ->
+                timerWheel.schedule(transactionId, 1, 1, now + TICK_MS * 3));
+
+        try {
+            assertTrue(fired.await(2, TimeUnit.SECONDS), "Timeouts were blocked by a slow timeout handler");
+            assertEquals(3, firedTransactions.size());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private long scheduleAndCancel(String name, int sagas, long deadline){
+        var scheduleStart = System.nanoTime();
+        for (var index = 0; index < sagas; index++){
+            timerWheel.schedule(name + index, 1, 1, deadline + index % 1000);
+        }
+        var scheduleNanos = System.nanoTime() - scheduleStart;
+        assertEquals(sagas, pendingTimers());
+
+        var cancelStart = System.nanoTime();
+        for (var index = 0; index < sagas; index++){
+            timerWheel.cancel(name + index);
+        }
+        var cancelNanos = System.nanoTime() - cancelStart;
+        assertEquals(0, pendingTimers());
+
+        var scheduleCost = scheduleNanos / sagas;
+        System.out.printf("SagaTimerWheel %s: %d sagas, schedule %d ns/saga, cancel %d ns/saga%n",
+                name, sagas, scheduleCost, cancelNanos / sagas);
+        return scheduleCost;
+    }
+
+    private long pendingTimers(){
+        return (long) meterRegistry.get(PENDING_TIMERS_GAUGE).gauge().value();
+    }
+
+    private SagaTimerWheel createTimerWheel(ApplicationEventPublisher eventPublisher, int handlerThreads){
+        var wheel = new SagaTimerWheel(eventPublisher, meterRegistry);
+        ReflectionTestUtils.setField(wheel, "tickMs", TICK_MS);
+        ReflectionTestUtils.setField(wheel, "wheelSize", WHEEL_SIZE);
+        ReflectionTestUtils.setField(wheel, "handlerThreads", handlerThreads);
+        wheel.start();
+        return wheel;
+    }
+
+    private void awaitQuietly(CountDownLatch latch){
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex){
+            Thread.currentThread().interrupt();
+        }
+    }
+}
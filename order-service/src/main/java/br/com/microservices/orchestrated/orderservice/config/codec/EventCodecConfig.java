@@ -0,0 +1,21 @@
+package br.com.microservices.orchestrated.orderservice.config.codec;
+
+import br.com.microservices.orchestrated.orderservice.core.document.Event;
+import br.com.microservices.orchestrated.sagacommons.codec.EWireFormat;
+import br.com.microservices.orchestrated.sagacommons.codec.EventCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class EventCodecConfig {
+
+    @Value("${spring.kafka.wire-format}")
+    private EWireFormat wireFormat;
+
+    @Bean
+    public EventCodec<Event> eventCodec(ObjectMapper objectMapper){
+        return new EventCodec<>(objectMapper, Event.class, wireFormat);
+    }
+}
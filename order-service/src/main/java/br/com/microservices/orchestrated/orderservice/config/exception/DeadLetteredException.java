@@ -0,0 +1,8 @@
+package br.com.microservices.orchestrated.orderservice.config.exception;
+
+public class DeadLetteredException extends ValidationException {
+
+    public DeadLetteredException(String message){
+        super(message);
+    }
+}
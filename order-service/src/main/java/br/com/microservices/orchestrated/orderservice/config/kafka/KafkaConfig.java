@@ -1,17 +1,32 @@
 package br.com.microservices.orchestrated.orderservice.config.kafka;
 
+import br.com.microservices.orchestrated.sagacommons.codec.EventDecodeException;
+import br.com.microservices.orchestrated.sagacommons.kafka.SagaEventPublisher;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.micrometer.KafkaListenerObservation;
+import org.springframework.kafka.support.micrometer.KafkaListenerObservationConvention;
+import org.springframework.kafka.support.micrometer.KafkaRecordReceiverContext;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -22,7 +37,10 @@ import java.util.Map;
 public class KafkaConfig {
 
     public static final int REPLICA_COUNT = 1;
-    public static final int PARTITION_COUNT = 1;
+    public static final String TOPIC_PARTITIONS_PROPERTY = "spring.kafka.partitions.%s";
+    public static final String LISTENER_THREAD_PREFIX = "kafka-listener-";
+
+    private final Environment environment;
 
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
@@ -33,6 +51,30 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.auto-offset-reset}")
     private String autoOffsetReset;
 
+    @Value("${spring.kafka.partitions.default}")
+    private Integer partitionCount;
+
+    @Value("${spring.kafka.listener.concurrency}")
+    private Integer concurrency;
+
+    @Value("${spring.kafka.producer.acks}")
+    private String acks;
+
+    @Value("${spring.kafka.producer.linger-ms}")
+    private Integer lingerMs;
+
+    @Value("${spring.kafka.producer.batch-size}")
+    private Integer batchSize;
+
+    @Value("${spring.kafka.producer.compression-type}")
+    private String compressionType;
+
+    @Value("${spring.kafka.producer.delivery-timeout-ms}")
+    private Integer deliveryTimeoutMs;
+
+    @Value("${spring.kafka.producer.retry-backoff-ms}")
+    private Integer retryBackoffMs;
+
     @Value("${spring.kafka.topic.start-saga}")
     private String startSagaTopic;
 
@@ -40,7 +82,7 @@ public class KafkaConfig {
     private String notifyEnding;
 
     @Bean
-    public ConsumerFactory<String, String> consumerFactory(){
+    public ConsumerFactory<String, byte[]> consumerFactory(){
         return new DefaultKafkaConsumerFactory<>(consumerProps());
     }
 
@@ -49,13 +91,48 @@ public class KafkaConfig {
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffsetReset);
         return props;
     }
 
     @Bean
-    public ProducerFactory<String, String> producerFactory(){
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> kafkaListenerContainerFactory(ConsumerFactory<String, byte[]> consumerFactory){
+        var factory = new ConcurrentKafkaListenerContainerFactory<String, byte[]>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(concurrency);
+        factory.setCommonErrorHandler(createErrorHandler());
+        factory.getContainerProperties().setObservationEnabled(true);
+        factory.getContainerProperties().setObservationConvention(createListenerObservationConvention());
+        if (Threading.VIRTUAL.isActive(environment)){
+            factory.getContainerProperties().setListenerTaskExecutor(createVirtualThreadExecutor());
+        }
+        return factory;
+    }
+
+    private KafkaListenerObservationConvention createListenerObservationConvention(){
+        return new KafkaListenerObservation.DefaultKafkaListenerObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(KafkaRecordReceiverContext context) {
+                return super.getLowCardinalityKeyValues(context).and("topic", context.getSource());
+            }
+        };
+    }
+
+    private DefaultErrorHandler createErrorHandler(){
+        var errorHandler = new DefaultErrorHandler();
+        errorHandler.addNotRetryableExceptions(EventDecodeException.class);
+        return errorHandler;
+    }
+
+    private AsyncTaskExecutor createVirtualThreadExecutor(){
+        var executor = new SimpleAsyncTaskExecutor(LISTENER_THREAD_PREFIX);
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    @Bean
+    public ProducerFactory<String, byte[]> producerFactory(){
         return new DefaultKafkaProducerFactory<>(producerProps());
     }
 
@@ -63,23 +140,41 @@ public class KafkaConfig {
         var props = new HashMap<String, Object>();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        props.put(ProducerConfig.ACKS_CONFIG, acks);
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        props.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, deliveryTimeoutMs);
+        props.put(ProducerConfig.RETRY_BACKOFF_MS_CONFIG, retryBackoffMs);
         return props;
     }
 
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate(ProducerFactory<String, String> producerFactory){
-        return new KafkaTemplate<>(producerFactory);
+    public KafkaTemplate<String, byte[]> kafkaTemplate(ProducerFactory<String, byte[]> producerFactory){
+        var kafkaTemplate = new KafkaTemplate<>(producerFactory);
+        kafkaTemplate.setObservationEnabled(true);
+        return kafkaTemplate;
+    }
+
+    @Bean
+    public SagaEventPublisher sagaEventPublisher(KafkaTemplate<String, byte[]> kafkaTemplate, MeterRegistry meterRegistry){
+        return new SagaEventPublisher(kafkaTemplate, meterRegistry);
     }
 
     private NewTopic buildTopic(String name){
         return TopicBuilder
                 .name(name)
                 .replicas(REPLICA_COUNT)
-                .partitions(PARTITION_COUNT)
+                .partitions(getPartitionCount(name))
                 .build();
     }
 
+    private int getPartitionCount(String name){
+        return environment.getProperty(String.format(TOPIC_PARTITIONS_PROPERTY, name), Integer.class, partitionCount);
+    }
+
     @Bean
     public NewTopic startSagaTopic(){
         return buildTopic(startSagaTopic);
@@ -90,4 +185,8 @@ public class KafkaConfig {
         return buildTopic(notifyEnding);
     }
 
+    @Bean
+    public NewTopic startSagaDeadLetterTopic(){
+        return buildTopic(SagaEventPublisher.deadLetterTopic(startSagaTopic));
+    }
 }
@@ -0,0 +1,119 @@
+package br.com.microservices.orchestrated.orderservice.config.mongo;
+
+import br.com.microservices.orchestrated.orderservice.core.document.Event;
+import br.com.microservices.orchestrated.orderservice.core.document.Order;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class MongoIndexConfig {
+
+    private static final String CREATED_AT_FIELD = "createdAt";
+    private static final String ID_FIELD = "_id";
+    private static final String ORDER_ID_FIELD = "orderId";
+    private static final String TRANSACTION_ID_FIELD = "transactionId";
+    private static final String TTL_INDEX = "createdAt_ttl";
+    private static final String PLAN_PROBE_VALUE = "index-plan-probe";
+    private static final List<String> UNINDEXED_STAGES = List.of("COLLSCAN", "SORT");
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${saga.mongo.ttl-days}")
+    private long ttlDays;
+
+    @Value("${saga.mongo.verify-query-plans}")
+    private boolean verifyQueryPlans;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes(){
+        var eventIndexes = mongoTemplate.indexOps(Event.class);
+        eventIndexes.ensureIndex(new Index()
+                .on(ORDER_ID_FIELD, Sort.Direction.ASC)
+                .on(CREATED_AT_FIELD, Sort.Direction.DESC)
+                .named("orderId_createdAt"));
+        eventIndexes.ensureIndex(new Index()
+                .on(TRANSACTION_ID_FIELD, Sort.Direction.ASC)
+                .on(CREATED_AT_FIELD, Sort.Direction.DESC)
+                .named("transactionId_createdAt"));
+        eventIndexes.ensureIndex(new Index()
+                .on(CREATED_AT_FIELD, Sort.Direction.DESC)
+                .on(ID_FIELD, Sort.Direction.DESC)
+                .named("createdAt_id"));
+        ensureTtlIndex(eventIndexes);
+        ensureTtlIndex(mongoTemplate.indexOps(Order.class));
+        log.info("Mongo indexes ensured for event and order collections with TTL of {} days", ttlDays);
+        if (verifyQueryPlans){
+            verifyQueryPlans();
+        }
+    }
+
+    private void ensureTtlIndex(IndexOperations indexOperations){
+        var existing = indexOperations
+                .getIndexInfo()
+                .stream()
+                .filter(index -> TTL_INDEX.equals(index.getName()))
+                .findFirst();
+        var expireAfter = ttlDays > 0 ? Optional.of(Duration.ofDays(ttlDays)) : Optional.<Duration>empty();
+        if (existing.isPresent() && !existing.get().getExpireAfter().equals(expireAfter)){
+            indexOperations.dropIndex(TTL_INDEX);
+        }
+        if (expireAfter.isPresent()){
+            indexOperations.ensureIndex(new Index()
+                    .on(CREATED_AT_FIELD, Sort.Direction.ASC)
+                    .expire(expireAfter.get())
+                    .named(TTL_INDEX));
+        }
+    }
+
+    private void verifyQueryPlans(){
+        var sort = new Document(CREATED_AT_FIELD, -1);
+        verifyQueryPlan(new Document(ORDER_ID_FIELD, PLAN_PROBE_VALUE), sort);
+        verifyQueryPlan(new Document(TRANSACTION_ID_FIELD, PLAN_PROBE_VALUE), sort);
+        verifyQueryPlan(new Document(), sort.append(ID_FIELD, -1));
+    }
+
+    private void verifyQueryPlan(Document filter, Document sort){
+        var explain = mongoTemplate
+                .getCollection(mongoTemplate.getCollectionName(Event.class))
+                .find(filter)
+                .sort(sort)
+                .limit(1)
+                .explain();
+        var winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+        if (hasUnindexedStage(winningPlan)){
+            throw new IllegalStateException(String.format("Event query with filter %s and sort %s is not index-covered: %s",
+                    filter.toJson(), sort.toJson(), winningPlan.toJson()));
+        }
+        log.info("Event query with filter {} and sort {} is index-covered", filter.toJson(), sort.toJson());
+    }
+
+    private boolean hasUnindexedStage(Document plan){
+        if (UNINDEXED_STAGES.contains(plan.getString("stage"))){
+            return true;
+        }
+        if (plan.get("queryPlan") instanceof Document queryPlan && hasUnindexedStage(queryPlan)){
+            return true;
+        }
+        if (plan.get("inputStage") instanceof Document inputStage && hasUnindexedStage(inputStage)){
+            return true;
+        }
+        return plan.getList("inputStages", Document.class, List.of())
+                .stream()
+                .anyMatch(this::hasUnindexedStage);
+    }
+}
@@ -1,7 +1,8 @@
 package br.com.microservices.orchestrated.orderservice.core.consumer;
 
 import br.com.microservices.orchestrated.orderservice.core.service.EventService;
-import br.com.microservices.orchestrated.orderservice.core.utils.JsonUtil;
+import br.com.microservices.orchestrated.orderservice.core.document.Event;
+import br.com.microservices.orchestrated.sagacommons.codec.EventCodec;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
@@ -14,15 +15,15 @@ public class EventConsumer {
 
     private final EventService eventService;
 
-    private final JsonUtil jsonUtil;
+    private final EventCodec<Event> eventCodec;
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.notify-ending}"
     )
-    public void consumerNotifyEndingEvent(String paylad){
-        log.info("Receiving ending notification evento {} from notify-ending topic", paylad);
-        var event = jsonUtil.toEvent(paylad);
+    public void consumerNotifyEndingEvent(byte[] paylad){
+        var event = eventCodec.decode(paylad);
+        log.info("Receiving ending notification evento {} from notify-ending topic", event);
         eventService.notifyEnding(event);
     }
 }
@@ -2,13 +2,21 @@ package br.com.microservices.orchestrated.orderservice.core.controller;
 
 import br.com.microservices.orchestrated.orderservice.core.document.Event;
 import br.com.microservices.orchestrated.orderservice.core.dto.EventFilter;
+import br.com.microservices.orchestrated.orderservice.core.dto.EventPage;
+import br.com.microservices.orchestrated.orderservice.core.dto.EventPageFilter;
 import br.com.microservices.orchestrated.orderservice.core.service.EventService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @AllArgsConstructor
@@ -22,8 +30,24 @@ public class EventController {
         return eventService.findByFilters(filter);
     }
 
+    @GetMapping("await/{transactionId}")
+    public CompletableFuture<ResponseEntity<Event>> awaitEnding(@PathVariable String transactionId,
+                                                                @RequestParam(required = false) Long waitMs){
+        return eventService
+                .awaitEnding(transactionId, waitMs)
+                .thenApply(event -> event
+                        .map(ResponseEntity::ok)
+                        .orElseGet(() -> ResponseEntity.accepted().build()));
+    }
+
     @GetMapping("all")
-    public List<Event> findAll(){
-        return eventService.findAll();
+    public EventPage findAll(EventPageFilter filter){
+        return eventService.findPage(filter);
+    }
+
+    @GetMapping(value = "stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAll(EventPageFilter filter, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        eventService.streamEvents(filter, response.getOutputStream());
     }
 }
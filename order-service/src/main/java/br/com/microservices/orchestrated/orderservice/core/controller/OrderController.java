@@ -3,21 +3,53 @@ package br.com.microservices.orchestrated.orderservice.core.controller;
 import br.com.microservices.orchestrated.orderservice.core.document.Order;
 import br.com.microservices.orchestrated.orderservice.core.dto.OrderRequest;
 import br.com.microservices.orchestrated.orderservice.core.service.OrderService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @AllArgsConstructor
 @RequestMapping("/api/order")
 public class OrderController {
 
+    private static final String AWAIT_LOCATION_PATTERN = "/api/event/await/%s";
+
     private final OrderService orderService;
 
     @PostMapping
     public Order createOrder(@RequestBody OrderRequest orderRequest){
         return  orderService.createOrder(orderRequest);
     }
+
+    @PostMapping("async")
+    public CompletableFuture<ResponseEntity<Order>> submitOrder(@RequestBody OrderRequest orderRequest){
+        return orderService
+                .submitOrder(orderRequest)
+                .thenApply(order -> ResponseEntity
+                        .accepted()
+                        .location(URI.create(String.format(AWAIT_LOCATION_PATTERN, order.getTransactionId())))
+                        .body(order));
+    }
+
+    @PostMapping(
+            value = "bulk",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    public void submitOrders(InputStream input, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.ACCEPTED.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        orderService.submitOrders(input, response.getOutputStream());
+    }
 }
@@ -0,0 +1,15 @@
+package br.com.microservices.orchestrated.orderservice.core.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventPageFilter {
+    private String cursor;
+    private Integer limit;
+    private boolean includePayload;
+    private boolean includeHistory;
+}
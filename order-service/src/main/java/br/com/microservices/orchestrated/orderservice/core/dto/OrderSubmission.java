@@ -0,0 +1,20 @@
+package br.com.microservices.orchestrated.orderservice.core.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderSubmission {
+
+    private String orderId;
+    private String transactionId;
+    private String status;
+    private String message;
+}
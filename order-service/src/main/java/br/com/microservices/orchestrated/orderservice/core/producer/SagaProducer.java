@@ -1,27 +1,40 @@
 package br.com.microservices.orchestrated.orderservice.core.producer;
 
+import br.com.microservices.orchestrated.orderservice.config.exception.DeadLetteredException;
+import br.com.microservices.orchestrated.sagacommons.kafka.EDeliveryOutcome;
+import br.com.microservices.orchestrated.sagacommons.kafka.SagaEventPublisher;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
-@Slf4j
+import java.util.concurrent.CompletableFuture;
+
+import static org.springframework.util.ObjectUtils.isEmpty;
+
 @Component
 @RequiredArgsConstructor
 public class SagaProducer {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final SagaEventPublisher sagaEventPublisher;
 
     @Value("${spring.kafka.topic.start-saga}")
     private String starSagaTopic;
 
-    public void sendEvent(String payload){
-        try {
-            log.info("Sending evento to topic {} with data {}", starSagaTopic, payload);
-            kafkaTemplate.send(starSagaTopic, payload);
-        }catch (Exception ex){
-            log.error("Erro trying to send data to topic {} with data {}", starSagaTopic, payload, ex);
-        }
+    public CompletableFuture<Void> sendEvent(byte[] payload, String key){
+        var delivery = new CompletableFuture<Void>();
+        sagaEventPublisher
+                .send(new ProducerRecord<>(starSagaTopic, key, payload))
+                .whenComplete((outcome, ex) -> {
+                    if (!isEmpty(ex)){
+                        delivery.completeExceptionally(ex);
+                    } else if (EDeliveryOutcome.DEAD_LETTERED == outcome){
+                        delivery.completeExceptionally(new DeadLetteredException("Saga could not be started, the event was sent to "
+                                .concat(SagaEventPublisher.deadLetterTopic(starSagaTopic))));
+                    } else {
+                        delivery.complete(null);
+                    }
+                });
+        return delivery;
     }
 }
@@ -3,33 +3,115 @@ package br.com.microservices.orchestrated.orderservice.core.service;
 import br.com.microservices.orchestrated.orderservice.config.exception.ValidationException;
 import br.com.microservices.orchestrated.orderservice.core.document.Event;
 import br.com.microservices.orchestrated.orderservice.core.dto.EventFilter;
+import br.com.microservices.orchestrated.orderservice.core.dto.EventPage;
+import br.com.microservices.orchestrated.orderservice.core.dto.EventPageFilter;
 import br.com.microservices.orchestrated.orderservice.core.repository.EventRepository;
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 import org.springframework.util.ObjectUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.springframework.util.ObjectUtils.isEmpty;
 
 @Slf4j
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class EventService {
 
+    private static final String SAGA_DURATION_TIMER = "saga.duration";
+    private static final String SAGA_COMPLETED_COUNTER = "saga.completed";
+    private static final String CREATED_AT_FIELD = "createdAt";
+    private static final String ID_FIELD = "id";
+    private static final String PAYLOAD_FIELD = "payload";
+    private static final String HISTORY_FIELD = "eventHistory";
+    private static final String CURSOR_SEPARATOR = "|";
+    private static final byte[] LINE_SEPARATOR = "\n".getBytes();
+
     private final EventRepository eventRepository;
+    private final MeterRegistry meterRegistry;
+    private final SagaWaiterRegistry sagaWaiterRegistry;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${saga.completion.default-wait-ms}")
+    private long defaultWaitMs;
+
+    @Value("${saga.completion.max-wait-ms}")
+    private long maxWaitMs;
+
+    @Value("${saga.listing.default-page-size}")
+    private int defaultPageSize;
+
+    @Value("${saga.listing.max-page-size}")
+    private int maxPageSize;
+
+    @Value("${saga.listing.stream-batch-size}")
+    private int streamBatchSize;
 
     public void notifyEnding(Event event){
+        var endedAt = LocalDateTime.now();
+        recordSagaDuration(event, endedAt);
         event.setOrderId(event.getOrderId());
-        event.setCreatedAt(LocalDateTime.now());
+        event.setCreatedAt(endedAt);
         save(event);
+        sagaWaiterRegistry.complete(event);
         log.info("Order {} with saga notified! transactionId: {}", event.getOrderId(), event.getTransactionId());
     }
 
-    public List<Event> findAll(){
-        return  eventRepository.findAllByOrderByCreatedAtDesc();
+    public CompletableFuture<Optional<Event>> awaitEnding(String transactionId, Long waitMs){
+        var waiter = sagaWaiterRegistry.register(transactionId);
+        try {
+            var event = findByTransactionId(transactionId);
+            if (isEnding(event)){
+                waiter.complete(event);
+            }
+        }catch (RuntimeException ex){
+            waiter.cancel(false);
+            throw ex;
+        }
+        return waiter
+                .completeOnTimeout(null, getWaitMs(waitMs), TimeUnit.MILLISECONDS)
+                .thenApply(Optional::ofNullable);
+    }
+
+    public EventPage findPage(EventPageFilter filter){
+        var limit = getPageSize(filter.getLimit());
+        var events = mongoTemplate.find(createListingQuery(filter).limit(limit), Event.class);
+        return EventPage
+                .builder()
+                .events(events)
+                .nextCursor(events.size() < limit ? null : encodeCursor(events.get(events.size() - 1)))
+                .build();
+    }
+
+    public void streamEvents(EventPageFilter filter, OutputStream output) throws IOException {
+        var query = createListingQuery(filter).cursorBatchSize(streamBatchSize);
+        try (var events = mongoTemplate.stream(query, Event.class)){
+            var iterator = events.iterator();
+            while (iterator.hasNext()){
+                output.write(objectMapper.writeValueAsBytes(iterator.next()));
+                output.write(LINE_SEPARATOR);
+            }
+        }
+        output.flush();
     }
 
     public Event findByFilters(EventFilter eventFilter){
@@ -46,6 +128,62 @@ public class EventService {
         return eventRepository.save(event);
     }
 
+    private void recordSagaDuration(Event event, LocalDateTime endedAt){
+        var status = isEmpty(event.getStatus()) ? "UNKNOWN" : event.getStatus();
+        meterRegistry.counter(SAGA_COMPLETED_COUNTER, "status", status).increment();
+        if (isEmpty(event.getCreatedAt())){
+            return;
+        }
+        meterRegistry.timer(SAGA_DURATION_TIMER, "status", status)
+                .record(Duration.between(event.getCreatedAt(), endedAt));
+    }
+
+    private Query createListingQuery(EventPageFilter filter){
+        var query = new Query().with(Sort.by(Sort.Direction.DESC, CREATED_AT_FIELD, ID_FIELD));
+        if (!isEmpty(filter.getCursor())){
+            query.addCriteria(createCursorCriteria(filter.getCursor()));
+        }
+        if (!filter.isIncludePayload()){
+            query.fields().exclude(PAYLOAD_FIELD);
+        }
+        if (!filter.isIncludeHistory()){
+            query.fields().exclude(HISTORY_FIELD);
+        }
+        return query;
+    }
+
+    private Criteria createCursorCriteria(String cursor){
+        try {
+            var value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var separatorIndex = value.indexOf(CURSOR_SEPARATOR);
+            var createdAt = LocalDateTime.parse(value.substring(0, separatorIndex));
+            var id = value.substring(separatorIndex + 1);
+            return new Criteria().orOperator(
+                    Criteria.where(CREATED_AT_FIELD).lt(createdAt),
+                    Criteria.where(CREATED_AT_FIELD).is(createdAt).and(ID_FIELD).lt(id)
+            );
+        }catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex){
+            throw new ValidationException("Invalid cursor.");
+        }
+    }
+
+    private String encodeCursor(Event event){
+        var value = event.getCreatedAt().toString().concat(CURSOR_SEPARATOR).concat(event.getId());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private int getPageSize(Integer limit){
+        return isEmpty(limit) ? defaultPageSize : Math.min(Math.max(limit, 1), maxPageSize);
+    }
+
+    private boolean isEnding(Event event){
+        return !isEmpty(event.getSource()) && !isEmpty(event.getStatus());
+    }
+
+    private long getWaitMs(Long waitMs){
+        return isEmpty(waitMs) ? defaultWaitMs : Math.min(Math.max(waitMs, 0), maxWaitMs);
+    }
+
     private void validateEmptyFilters(EventFilter eventFilter){
         if(isEmpty(eventFilter.getOrderId()) && isEmpty(eventFilter.getTransactionId())){
             throw new ValidationException("OrderId or TransactionId must be informed.");
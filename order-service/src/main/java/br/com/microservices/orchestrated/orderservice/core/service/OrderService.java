@@ -1,51 +1,223 @@
 package br.com.microservices.orchestrated.orderservice.core.service;
 
+import br.com.microservices.orchestrated.orderservice.config.exception.DeadLetteredException;
+import br.com.microservices.orchestrated.orderservice.config.exception.ValidationException;
 import br.com.microservices.orchestrated.orderservice.core.document.Event;
 import br.com.microservices.orchestrated.orderservice.core.document.Order;
 import br.com.microservices.orchestrated.orderservice.core.dto.OrderRequest;
+import br.com.microservices.orchestrated.orderservice.core.dto.OrderSubmission;
 import br.com.microservices.orchestrated.orderservice.core.producer.SagaProducer;
 import br.com.microservices.orchestrated.orderservice.core.repository.OrderRepository;
-import br.com.microservices.orchestrated.orderservice.core.utils.JsonUtil;
-import lombok.AllArgsConstructor;
+import br.com.microservices.orchestrated.sagacommons.codec.EventCodec;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
 
+import static org.springframework.util.ObjectUtils.isEmpty;
+
+@Slf4j
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class OrderService {
 
-    private final OrderRepository orderRepository;
     private static final String TRANSACTION_ID_PATTERN = "%s_%s";
+    private static final String ACCEPTED_STATUS = "ACCEPTED";
+    private static final String FAILED_STATUS = "FAILED";
+    private static final String DEAD_LETTERED_STATUS = "DEAD_LETTERED";
+    private static final String ID_FIELD = "id";
+    private static final String ORDER_ID_FIELD = "orderId";
+    private static final byte[] LINE_SEPARATOR = "\n".getBytes();
 
-    private final JsonUtil jsonUtil;
+    private final OrderRepository orderRepository;
+
+    private final EventCodec<Event> eventCodec;
 
     private final SagaProducer producer;
 
     private final EventService eventService;
 
+    private final MongoTemplate mongoTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${saga.bulk.chunk-size}")
+    private int bulkChunkSize;
+
+    @Value("${saga.bulk.max-in-flight}")
+    private int bulkMaxInFlight;
+
     public Order createOrder(OrderRequest orderRequest){
-        var order = Order
+        var order = orderRepository.save(createOrderDocument(orderRequest));
+        producer.sendEvent(eventCodec.encode(createPayload(order)), order.getId());
+        return order;
+    }
+
+    public CompletableFuture<Order> submitOrder(OrderRequest orderRequest){
+        var order = orderRepository.save(createOrderDocument(orderRequest));
+        return producer
+                .sendEvent(eventCodec.encode(createPayload(order)), order.getId())
+                .thenApply(ignored -> order);
+    }
+
+    public void submitOrders(InputStream input, OutputStream output) throws IOException {
+        var inFlight = new Semaphore(bulkMaxInFlight);
+        var pendingSubmissions = new ArrayDeque<PendingSubmission>();
+        var chunk = new ArrayList<OrderRequest>(bulkChunkSize);
+        try (var orderRequests = objectMapper.readerFor(OrderRequest.class).<OrderRequest>readValues(input)){
+            while (orderRequests.hasNextValue()){
+                chunk.add(orderRequests.nextValue());
+                if (chunk.size() == bulkChunkSize){
+                    submitChunk(chunk, inFlight, pendingSubmissions);
+                    writeSubmissions(pendingSubmissions, output, false);
+                }
+            }
+            submitChunk(chunk, inFlight, pendingSubmissions);
+        }catch (JsonProcessingException ex){
+            log.error("Erro trying to read bulk order submission: ", ex);
+            submitChunk(chunk, inFlight, pendingSubmissions);
+            pendingSubmissions.add(createFailedSubmission(
+                    new ValidationException("Invalid bulk order payload: ".concat(ex.getOriginalMessage()))));
+        }
+        writeSubmissions(pendingSubmissions, output, true);
+    }
+
+    private void submitChunk(List<OrderRequest> orderRequests, Semaphore inFlight, Queue<PendingSubmission> pendingSubmissions){
+        if (orderRequests.isEmpty()){
+            return;
+        }
+        var orders = orderRequests
+                .stream()
+                .map(orderRequest -> createOrderDocument(orderRequest, new ObjectId().toHexString()))
+                .toList();
+        orderRequests.clear();
+        Collection<Event> events;
+        try {
+            mongoTemplate.insertAll(orders);
+            events = mongoTemplate.insertAll(orders
+                    .stream()
+                    .map(this::createEventDocument)
+                    .toList());
+        }catch (RuntimeException ex){
+            log.error("Erro trying to insert {} orders from bulk submission: ", orders.size(), ex);
+            removeOrders(orders.stream().map(Order::getId).toList());
+            orders.forEach(order -> pendingSubmissions.add(createFailedSubmission(ex)));
+            return;
+        }
+        log.info("Inserted {} orders from bulk submission", events.size());
+        events.forEach(event -> pendingSubmissions.add(new PendingSubmission(event, sendEvent(event, inFlight))));
+    }
+
+    private CompletableFuture<Void> sendEvent(Event event, Semaphore inFlight){
+        var payload = eventCodec.encode(event);
+        inFlight.acquireUninterruptibly();
+        try {
+            var delivery = producer.sendEvent(payload, event.getOrderId());
+            delivery.whenComplete((result, ex) -> inFlight.release());
+            return delivery;
+        }catch (RuntimeException ex){
+            inFlight.release();
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    private void removeOrders(List<String> orderIds){
+        if (orderIds.isEmpty()){
+            return;
+        }
+        try {
+            mongoTemplate.remove(new Query(Criteria.where(ORDER_ID_FIELD).in(orderIds)), Event.class);
+            mongoTemplate.remove(new Query(Criteria.where(ID_FIELD).in(orderIds)), Order.class);
+        }catch (RuntimeException ex){
+            log.error("Erro trying to remove orders {} not started from bulk submission: ", orderIds, ex);
+        }
+    }
+
+    private void writeSubmissions(Queue<PendingSubmission> pendingSubmissions, OutputStream output, boolean waitAll) throws IOException {
+        var failedOrderIds = new ArrayList<String>();
+        while (!pendingSubmissions.isEmpty() && (waitAll || pendingSubmissions.peek().delivery().isDone())){
+            var submission = createSubmission(pendingSubmissions.poll());
+            if (FAILED_STATUS.equals(submission.getStatus()) && !isEmpty(submission.getOrderId())){
+                failedOrderIds.add(submission.getOrderId());
+            }
+            output.write(objectMapper.writeValueAsBytes(submission));
+            output.write(LINE_SEPARATOR);
+        }
+        removeOrders(failedOrderIds);
+        output.flush();
+    }
+
+    private PendingSubmission createFailedSubmission(Exception ex){
+        return new PendingSubmission(null, CompletableFuture.failedFuture(ex));
+    }
+
+    private OrderSubmission createSubmission(PendingSubmission pendingSubmission){
+        var error = pendingSubmission.delivery().handle((result, ex) -> ex).join();
+        var event = pendingSubmission.event();
+        return OrderSubmission
                 .builder()
+                .orderId(isEmpty(event) ? null : event.getOrderId())
+                .transactionId(isEmpty(event) ? null : event.getTransactionId())
+                .status(getSubmissionStatus(error))
+                .message(isEmpty(error) ? null : error.getMessage())
+                .build();
+    }
+
+    private String getSubmissionStatus(Throwable error){
+        if (isEmpty(error)){
+            return ACCEPTED_STATUS;
+        }
+        return error instanceof DeadLetteredException ? DEAD_LETTERED_STATUS : FAILED_STATUS;
+    }
+
+    private Order createOrderDocument(OrderRequest orderRequest){
+        return createOrderDocument(orderRequest, null);
+    }
+
+    private Order createOrderDocument(OrderRequest orderRequest, String id){
+        return Order
+                .builder()
+                .id(id)
                 .products(orderRequest.getProducts())
                 .createdAt(LocalDateTime.now())
                 .transactionId(String.format(TRANSACTION_ID_PATTERN, Instant.now().toEpochMilli(), UUID.randomUUID()))
                 .build();
-        orderRepository.save(order);
-        producer.sendEvent(jsonUtil.toJson(createPayload(order)));
-        return order;
     }
 
     private Event createPayload(Order order){
-        var event = Event
+       return eventService.save(createEventDocument(order));
+    }
+
+    private Event createEventDocument(Order order){
+        return Event
                 .builder()
                 .orderId(order.getId())
                 .transactionId(order.getTransactionId())
                 .payload(order)
                 .createdAt(LocalDateTime.now())
                 .build();
-       return eventService.save(event);
+    }
+
+    private record PendingSubmission(Event event, CompletableFuture<Void> delivery) {
     }
 }
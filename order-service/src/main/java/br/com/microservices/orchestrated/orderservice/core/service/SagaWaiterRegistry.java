@@ -0,0 +1,45 @@
+package br.com.microservices.orchestrated.orderservice.core.service;
+
+import br.com.microservices.orchestrated.orderservice.core.document.Event;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+@Component
+public class SagaWaiterRegistry {
+
+    private static final String WAITERS_GAUGE = "saga.waiters";
+
+    private final Map<String, Queue<CompletableFuture<Event>>> waiters = new ConcurrentHashMap<>();
+
+    public SagaWaiterRegistry(MeterRegistry meterRegistry) {
+        Gauge.builder(WAITERS_GAUGE, waiters, Map::size).register(meterRegistry);
+    }
+
+    public CompletableFuture<Event> register(String transactionId){
+        var waiter = new CompletableFuture<Event>();
+        waiters.computeIfAbsent(transactionId, id -> new ConcurrentLinkedQueue<>()).add(waiter);
+        waiter.whenComplete((event, ex) -> unregister(transactionId, waiter));
+        return waiter;
+    }
+
+    public void complete(Event event){
+        var transactionWaiters = waiters.remove(event.getTransactionId());
+        if (transactionWaiters != null){
+            transactionWaiters.forEach(waiter -> waiter.complete(event));
+        }
+    }
+
+    private void unregister(String transactionId, CompletableFuture<Event> waiter){
+        waiters.computeIfPresent(transactionId, (id, transactionWaiters) -> {
+            transactionWaiters.remove(waiter);
+            return transactionWaiters.isEmpty() ? null : transactionWaiters;
+        });
+    }
+}
@@ -1,30 +0,0 @@
-package br.com.microservices.orchestrated.orderservice.core.utils;
-
-import br.com.microservices.orchestrated.orderservice.core.document.Event;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.AllArgsConstructor;
-import org.springframework.stereotype.Component;
-
-@Component
-@AllArgsConstructor
-public class JsonUtil {
-
-    private final ObjectMapper objectMapper;
-
-    public String toJson(Object object){
-        try {
-            return objectMapper.writeValueAsString(object);
-        }catch (Exception e){
-            return "";
-        }
-    }
-
-    public Event toEvent(String json){
-        try {
-            return objectMapper.readValue(json, Event.class);
-        }catch (Exception e){
-            return null;
-        }
-    }
-
-}
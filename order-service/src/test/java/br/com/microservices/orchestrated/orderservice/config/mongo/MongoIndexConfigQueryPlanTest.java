@@ -0,0 +1,138 @@
+package br.com.microservices.orchestrated.orderservice.config.mongo;
+
+import br.com.microservices.orchestrated.orderservice.core.document.Event;
+import com.mongodb.ExplainVerbosity;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.util.ObjectUtils.isEmpty;
+
+@DataMongoTest(properties = {
+        "de.flapdoodle.mongodb.embedded.version=7.0.14",
+        "saga.mongo.ttl-days=0",
+        "saga.mongo.verify-query-plans=false"
+})
+@Import(MongoIndexConfig.class)
+@EnabledIf(value = "isMongoDistributionAvailable", disabledReason = "No cached MongoDB archive and fastdl.mongodb.org is unreachable")
+class MongoIndexConfigQueryPlanTest {
+
+    private static final int ORDERS = 200;
+    private static final int EVENTS_PER_ORDER = 5;
+    private static final String DISTRIBUTION_HOST = "fastdl.mongodb.org";
+    private static final int CONNECT_TIMEOUT_MS = 2_000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp(){
+        mongoTemplate.remove(new Query(), Event.class);
+        var now = LocalDateTime.now();
+        var events = new ArrayList<Event>();
+        IntStream.range(0, ORDERS).forEach(order -> IntStream.range(0, EVENTS_PER_ORDER).forEach(step -> events.add(Event
+                .builder()
+                .orderId("order-" + order)
+                .transactionId("transaction-" + order)
+                .source("ORCHESTRATOR")
+                .status("SUCCESS")
+                .createdAt(now.minusMinutes(order).plusSeconds(step))
+                .build())));
+        mongoTemplate.insertAll(events);
+    }
+
+    @Test
+    void shouldFindLatestEventByOrderIdThroughTheOrderIdIndex(){
+        var explain = explain(new Document("orderId", "order-42"), new Document("createdAt", -1));
+
+        assertIndexCovered(explain, "orderId_createdAt");
+    }
+
+    @Test
+    void shouldFindLatestEventByTransactionIdThroughTheTransactionIdIndex(){
+        var explain = explain(new Document("transactionId", "transaction-42"), new Document("createdAt", -1));
+
+        assertIndexCovered(explain, "transactionId_createdAt");
+    }
+
+    @Test
+    void shouldListEventsThroughTheCreatedAtIndex(){
+        var explain = explain(new Document(), new Document("createdAt", -1).append("_id", -1));
+
+        assertIndexCovered(explain, "createdAt_id");
+    }
+
+    private Document explain(Document filter, Document sort){
+        return mongoTemplate
+                .getCollection(mongoTemplate.getCollectionName(Event.class))
+                .find(filter)
+                .sort(sort)
+                .limit(1)
+                .explain(ExplainVerbosity.EXECUTION_STATS);
+    }
+
+    private void assertIndexCovered(Document explain, String indexName){
+        var stages = new ArrayList<Document>();
+        collectStages(explain.get("queryPlanner", Document.class).get("winningPlan", Document.class), stages);
+        var stageNames = stages.stream().map(stage -> stage.getString("stage")).toList();
+
+        assertFalse(stageNames.contains("COLLSCAN"), "Winning plan must not scan the collection: " + stageNames);
+        assertFalse(stageNames.contains("SORT"), "Winning plan must not sort in memory: " + stageNames);
+        assertTrue(stages.stream().anyMatch(stage -> "IXSCAN".equals(stage.getString("stage"))
+                && indexName.equals(stage.getString("indexName"))), "Winning plan must use index " + indexName + ": " + stageNames);
+
+        var executionStats = explain.get("executionStats", Document.class);
+        assertEquals(1, executionStats.getInteger("nReturned"));
+        assertEquals(1, executionStats.getInteger("totalDocsExamined"));
+    }
+
+    static boolean isMongoDistributionAvailable(){
+        var artifacts = System.getenv("EMBEDDED_MONGO_ARTIFACTS");
+        var archives = (isEmpty(artifacts) ? Path.of(System.getProperty("user.home"), ".embedmongo") : Path.of(artifacts)).resolve("archives");
+        if (Files.isDirectory(archives)){
+            try (var files = Files.walk(archives)){
+                if (files.anyMatch(file -> file.getFileName().toString().endsWith(".tgz"))){
+                    return true;
+                }
+            }catch (IOException ex){
+                return false;
+            }
+        }
+        try (var socket = new Socket()){
+            socket.connect(new InetSocketAddress(DISTRIBUTION_HOST, 443), CONNECT_TIMEOUT_MS);
+            return true;
+        }catch (IOException ex){
+            return false;
+        }
+    }
+
+    private void collectStages(Document plan, List<Document> stages){
+        stages.add(plan);
+        if (plan.get("queryPlan") instanceof Document queryPlan){
+            collectStages(queryPlan, stages);
+        }
+        if (plan.get("inputStage") instanceof Document inputStage){
+            collectStages(inputStage, stages);
+        }
+        plan.getList("inputStages", Document.class, List.of()).forEach(inputStage -> collectStages(inputStage, stages));
+    }
+}
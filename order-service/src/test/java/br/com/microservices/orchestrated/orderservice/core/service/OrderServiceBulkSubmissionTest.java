@@ -0,0 +1,121 @@
+package br.com.microservices.orchestrated.orderservice.core.service;
+
+import br.com.microservices.orchestrated.orderservice.config.exception.DeadLetteredException;
+import br.com.microservices.orchestrated.orderservice.core.document.Event;
+import br.com.microservices.orchestrated.orderservice.core.document.Order;
+import br.com.microservices.orchestrated.orderservice.core.document.OrderProducts;
+import br.com.microservices.orchestrated.orderservice.core.document.Product;
+import br.com.microservices.orchestrated.orderservice.core.dto.OrderRequest;
+import br.com.microservices.orchestrated.orderservice.core.dto.OrderSubmission;
+import br.com.microservices.orchestrated.orderservice.core.producer.SagaProducer;
+import br.com.microservices.orchestrated.orderservice.core.repository.OrderRepository;
+import br.com.microservices.orchestrated.sagacommons.codec.EWireFormat;
+import br.com.microservices.orchestrated.sagacommons.codec.EventCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderServiceBulkSubmissionTest {
+
+    private static final int ORDERS = 3;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final SagaProducer producer = mock(SagaProducer.class);
+
+    private OrderService orderService;
+
+    @BeforeEach
+    void setUp(){
+        orderService = new OrderService(mock(OrderRepository.class), new EventCodec<>(objectMapper, Event.class, EWireFormat.JSON),
+                producer, mock(EventService.class), mongoTemplate, objectMapper);
+        ReflectionTestUtils.setField(orderService, "bulkChunkSize", ORDERS);
+        ReflectionTestUtils.setField(orderService, "bulkMaxInFlight", 1);
+        when(mongoTemplate.insertAll(anyCollection())).thenAnswer(invocation -> invocation.getArgument(0, Collection.class));
+    }
+
+    @Test
+    void shouldReleaseTheInFlightPermitAndRemoveTheOrdersWhenTheSendThrows() throws Exception {
+        when(producer.sendEvent(any(), anyString())).thenThrow(new IllegalStateException("producer is closed"));
+
+        var submissions = assertTimeoutPreemptively(Duration.ofSeconds(10), this::submitOrders);
+
+        verify(producer, times(ORDERS)).sendEvent(any(), anyString());
+        assertEquals(List.of("FAILED", "FAILED", "FAILED"), submissions.stream().map(OrderSubmission::getStatus).toList());
+        assertTrue(submissions.stream().allMatch(submission -> submission.getOrderId() != null));
+        verify(mongoTemplate).remove(any(Query.class), eq(Event.class));
+        verify(mongoTemplate).remove(any(Query.class), eq(Order.class));
+    }
+
+    @Test
+    void shouldRemoveTheInsertedOrdersWhenTheirEventsCannotBeInserted() throws Exception {
+        when(mongoTemplate.insertAll(anyCollection()))
+                .thenAnswer(invocation -> invocation.getArgument(0, Collection.class))
+                .thenThrow(new IllegalStateException("write concern error"));
+
+        var submissions = submitOrders();
+
+        assertEquals(List.of("FAILED", "FAILED", "FAILED"), submissions.stream().map(OrderSubmission::getStatus).toList());
+        var removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(removed.capture(), eq(Order.class));
+        assertEquals(ORDERS, removed.getValue().getQueryObject().get("id", Document.class).getList("$in", String.class).size());
+        verify(producer, never()).sendEvent(any(), anyString());
+    }
+
+    @Test
+    void shouldKeepDeadLetteredOrdersAndReportThemWithTheirIds() throws Exception {
+        when(producer.sendEvent(any(), anyString())).thenReturn(CompletableFuture.failedFuture(
+                new DeadLetteredException("Saga could not be started, the event was sent to start-saga.DLT")));
+
+        var submissions = submitOrders();
+
+        assertEquals(List.of("DEAD_LETTERED", "DEAD_LETTERED", "DEAD_LETTERED"),
+                submissions.stream().map(OrderSubmission::getStatus).toList());
+        assertTrue(submissions.stream().allMatch(submission -> submission.getOrderId() != null && submission.getTransactionId() != null));
+        verify(mongoTemplate, never()).remove(any(Query.class), any(Class.class));
+    }
+
+    private List<OrderSubmission> submitOrders() throws Exception {
+        var orderRequests = IntStream
+                .range(0, ORDERS)
+                .mapToObj(index -> new OrderRequest(List.of(new OrderProducts(new Product("BOOKS", 10.0), index + 1))))
+                .toList();
+        var input = new ByteArrayOutputStream();
+        for (var orderRequest : orderRequests){
+            input.write(objectMapper.writeValueAsBytes(orderRequest));
+            input.write('\n');
+        }
+        var output = new ByteArrayOutputStream();
+        orderService.submitOrders(new ByteArrayInputStream(input.toByteArray()), output);
+        return objectMapper
+                .readerFor(OrderSubmission.class)
+                .<OrderSubmission>readValues(output.toByteArray())
+                .readAll();
+    }
+}
@@ -0,0 +1,25 @@
+package br.com.microservices.orchestrated.paymentservice.config.codec;
+
+import br.com.microservices.orchestrated.paymentservice.core.dto.Event;
+import br.com.microservices.orchestrated.sagacommons.codec.EHistoryMode;
+import br.com.microservices.orchestrated.sagacommons.codec.EWireFormat;
+import br.com.microservices.orchestrated.sagacommons.codec.EventCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class EventCodecConfig {
+
+    @Value("${spring.kafka.wire-format}")
+    private EWireFormat wireFormat;
+
+    @Value("${saga.history.mode}")
+    private EHistoryMode historyMode;
+
+    @Bean
+    public EventCodec<Event> eventCodec(ObjectMapper objectMapper){
+        return new EventCodec<>(objectMapper, Event.class, wireFormat, historyMode);
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.microservices.orchestrated.paymentservice.core.consumer;
+
+import br.com.microservices.orchestrated.sagacommons.idempotency.IdempotentEventProcessor;
+import br.com.microservices.orchestrated.paymentservice.core.service.PaymentService;
+import br.com.microservices.orchestrated.paymentservice.core.dto.Event;
+import br.com.microservices.orchestrated.sagacommons.codec.EventCodec;
+import br.com.microservices.orchestrated.sagacommons.codec.EventDecodeException;
+import br.com.microservices.orchestrated.sagacommons.kafka.SagaHeaders;
+import br.com.microservices.orchestrated.sagacommons.kafka.SagaStep;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+@Slf4j
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(value = "spring.kafka.consumer.batch.enabled", havingValue = "true")
+public class PaymentBatchConsumer {
+
+    private final EventCodec<Event> eventCodec;
+
+    private final PaymentService paymentService;
+
+    private final IdempotentEventProcessor<Event> idempotentEventProcessor;
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.payment-success}",
+            containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    public void consumerSuccessEvents(List<ConsumerRecord<String, byte[]>> records){
+        log.info("Receiving batch of {} success events from payment-success topic", records.size());
+        var events = new ArrayList<Event>();
+        var steps = new HashMap<String, SagaStep>();
+        records.forEach(record -> {
+            var event = decodeEvent(record.value());
+            if (event != null){
+                events.add(event);
+                SagaHeaders.readStep(record.headers()).ifPresent(step -> steps.put(event.getTransactionId(), step));
+            }
+        });
+        idempotentEventProcessor.processAll(events, steps, paymentService::realizePayments);
+    }
+
+    private Event decodeEvent(byte[] payload){
+        try {
+            return eventCodec.decode(payload);
+        }catch (EventDecodeException ex){
+            log.error("Erro trying to decode event from payment-success batch: {}", ex.getError(), ex);
+            return null;
+        }
+    }
+}
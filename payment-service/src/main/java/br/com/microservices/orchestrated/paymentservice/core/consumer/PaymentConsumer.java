@@ -1,9 +1,13 @@
 package br.com.microservices.orchestrated.paymentservice.core.consumer;
 
+import br.com.microservices.orchestrated.sagacommons.idempotency.IdempotentEventProcessor;
 import br.com.microservices.orchestrated.paymentservice.core.service.PaymentService;
-import br.com.microservices.orchestrated.paymentservice.core.utils.JsonUtil;
+import br.com.microservices.orchestrated.paymentservice.core.dto.Event;
+import br.com.microservices.orchestrated.sagacommons.codec.EventCodec;
+import br.com.microservices.orchestrated.sagacommons.kafka.SagaHeaders;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
@@ -12,30 +16,31 @@ import org.springframework.stereotype.Component;
 @AllArgsConstructor
 public class PaymentConsumer {
 
-    private final JsonUtil jsonUtil;
+    private final EventCodec<Event> eventCodec;
 
     private final PaymentService paymentService;
 
+    private final IdempotentEventProcessor<Event> idempotentEventProcessor;
+
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
-            topics = "${spring.kafka.topic.payment-success}"
+            topics = "${spring.kafka.topic.payment-success}",
+            autoStartup = "#{!${spring.kafka.consumer.batch.enabled}}"
     )
-    public void consumerSuccessEvent(String paylad){
-        log.info("Receiving success event {} from payment-success topic", paylad);
-        var event = jsonUtil.toEvent(paylad);
-        log.info(event.toString());
-        paymentService.realizePayment(event);
+    public void consumerSuccessEvent(ConsumerRecord<String, byte[]> record){
+        var event = eventCodec.decode(record.value());
+        log.info("Receiving success event {} from payment-success topic", event);
+        idempotentEventProcessor.process(event, SagaHeaders.readStep(record.headers()).orElse(null), paymentService::realizePayment);
     }
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.payment-fail}"
     )
-    public void consumerFailEvent(String paylad){
-        log.info("Receiving rollback event {} from payment-fail topic", paylad);
-        var event = jsonUtil.toEvent(paylad);
-        log.info(event.toString());
-        paymentService.realizeRefound(event);
+    public void consumerFailEvent(ConsumerRecord<String, byte[]> record){
+        var event = eventCodec.decode(record.value());
+        log.info("Receiving rollback event {} from payment-fail topic", event);
+        idempotentEventProcessor.process(event, SagaHeaders.readStep(record.headers()).orElse(null), paymentService::realizeRefound);
     }
 
 
@@ -2,6 +2,8 @@ package br.com.microservices.orchestrated.paymentservice.core.dto;
 
 
 import br.com.microservices.orchestrated.paymentservice.core.enums.ESagaStatus;
+import br.com.microservices.orchestrated.sagacommons.codec.EventHeader;
+import br.com.microservices.orchestrated.sagacommons.codec.SagaEvent;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -17,7 +19,7 @@ import static org.springframework.util.ObjectUtils.isEmpty;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-public class Event {
+public class Event implements SagaEvent {
 
     private String id;
     private String transactionId;
@@ -35,4 +37,9 @@ public class Event {
 
         eventHistory.add(history);
     }
+
+    @Override
+    public EventHeader toHeader(){
+        return new EventHeader(id, transactionId, orderId, source, isEmpty(status) ? null : status.name());
+    }
 }
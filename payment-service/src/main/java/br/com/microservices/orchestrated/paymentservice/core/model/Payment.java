@@ -14,10 +14,11 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Entity
 @Builder
-@Table(name = "payment")
+@Table(name = "payment", uniqueConstraints = @UniqueConstraint(name = "uk_payment_order_transaction", columnNames = {"orderId", "transactionId"}))
 public class Payment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_sequence")
+    @SequenceGenerator(name = "payment_sequence", sequenceName = "payment_sequence", allocationSize = 50)
     private Integer id;
 
     @Column(nullable = false)
@@ -46,7 +47,9 @@ public class Payment {
         var now = LocalDateTime.now();
         createdAt = now;
         updatedAt = now;
-        status = EPaymentStatus.PENDING;
+        if (status == null){
+            status = EPaymentStatus.PENDING;
+        }
     }
 
     @PreUpdate
@@ -1,13 +1,25 @@
 package br.com.microservices.orchestrated.paymentservice.core.repository;
 
+import br.com.microservices.orchestrated.paymentservice.core.enums.EPaymentStatus;
 import br.com.microservices.orchestrated.paymentservice.core.model.Payment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface PaymentRepository extends JpaRepository<Payment, Integer> {
 
-    Boolean existsByOrderIdAndTransactionId(String orderId, String transactionId);
-
     Optional<Payment> findByOrderIdAndTransactionId(String orderId, String transactionId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Payment p SET p.status = :status, p.updatedAt = :updatedAt WHERE p.orderId = :orderId AND p.transactionId = :transactionId")
+    int updateStatusByOrderIdAndTransactionId(@Param("orderId") String orderId,
+                                              @Param("transactionId") String transactionId,
+                                              @Param("status") EPaymentStatus status,
+                                              @Param("updatedAt") LocalDateTime updatedAt);
 }
@@ -7,14 +7,18 @@ import br.com.microservices.orchestrated.paymentservice.core.dto.OrderProducts;
 import br.com.microservices.orchestrated.paymentservice.core.enums.EPaymentStatus;
 import br.com.microservices.orchestrated.paymentservice.core.enums.ESagaStatus;
 import br.com.microservices.orchestrated.paymentservice.core.model.Payment;
-import br.com.microservices.orchestrated.paymentservice.core.producer.KafkaProducer;
+import br.com.microservices.orchestrated.sagacommons.outbox.OutboxService;
 import br.com.microservices.orchestrated.paymentservice.core.repository.PaymentRepository;
-import br.com.microservices.orchestrated.paymentservice.core.utils.JsonUtil;
+import br.com.microservices.orchestrated.sagacommons.codec.EventCodec;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Slf4j
 @Service
@@ -24,57 +28,95 @@ public class PaymentService {
     private static final Double REDUCE_SUM_VALUE = 0.0;
 
     private static final Double MIN_AMOUNT_VALUE = 0.1;
+    private static final String MIN_AMOUNT_MESSAGE = "The minimum amount available is ".concat(MIN_AMOUNT_VALUE.toString());
 
-    private final JsonUtil jsonUtil;
-    private final KafkaProducer kafkaProducer;
+    private final OutboxService<Event> outboxService;
     private final PaymentRepository paymentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EventCodec<Event> eventCodec;
 
     public void realizePayment(Event event){
+        realizePayment(event, eventCodec.encode(event));
+    }
+
+    private void realizePayment(Event event, byte[] receivedPayload){
         try {
-            checkCurrentValidation(event);
-            createPendingPayment(event);
-            var payment = findByOrderIdAndTransactionId(event);
-            validateAmount(payment.getTotalAmount());
-            changedPaymentToSuccess(payment);
-            handleSuccess(event);
+            transactionTemplate.executeWithoutResult(status -> {
+                var payment = save(createPayment(event));
+                handlePaymentResult(event, payment);
+                outboxService.save(event);
+            });
+        }catch (DataIntegrityViolationException ex){
+            throw handleDuplicatedEvent(event, ex);
         }catch (Exception ex){
             log.error("Error trying to make validate payment: ", ex);
-            handleFailCurrentNotExecuted(event,ex.getMessage());
+            var failedEvent = eventCodec.decode(receivedPayload);
+            handleFailCurrentNotExecuted(failedEvent, ex.getMessage());
+            outboxService.save(failedEvent);
         }
-        kafkaProducer.sendEvent(jsonUtil.toJson(event));
-
     }
 
-
-
-    private void checkCurrentValidation(Event event) {
-        if (paymentRepository.existsByOrderIdAndTransactionId(event.getOrderId(), event.getTransactionId())){
-            throw new ValidationException("there's another transactionId for this validation");
-        }
+    public void realizePayments(List<Event> events){
+        var pendingEvents = new ArrayList<Event>();
+        var failedEvents = new ArrayList<Event>();
+        var payments = new ArrayList<Payment>();
+        var receivedPayloads = new ArrayList<byte[]>();
+        events.forEach(event -> {
+            try {
+                payments.add(createPayment(event));
+                receivedPayloads.add(eventCodec.encode(event));
+                pendingEvents.add(event);
+            }catch (Exception ex){
+                log.error("Error trying to make validate payment: ", ex);
+                handleFailCurrentNotExecuted(event, ex.getMessage());
+                failedEvents.add(event);
+            }
+        });
+        saveAll(pendingEvents, receivedPayloads, failedEvents, payments);
     }
 
-    private void createPendingPayment(Event event) {
+    private Payment createPayment(Event event){
         var totalAmount = calculateAmount(event);
-        var totalItens =   calculateTotalItems(event);
-
-        var payment = Payment
+        return Payment
                 .builder()
                 .orderId(event.getPayload().getId())
                 .transactionId(event.getTransactionId())
                 .totalAmount(totalAmount)
-                .totalItems(totalItens)
+                .totalItems(calculateTotalItems(event))
+                .status(isAmountValid(totalAmount) ? EPaymentStatus.SUCCESS : EPaymentStatus.PENDING)
                 .build();
-        save(payment);
-        setEventAmountItens(event, payment);
     }
 
-    private Payment findByOrderIdAndTransactionId(Event event){
-        return paymentRepository.findByOrderIdAndTransactionId(event.getPayload().getId(), event.getTransactionId())
-                .orElseThrow(()-> new ValidationException("Payment not found by orderId and transactionId"));
+    private void saveAll(List<Event> events, List<byte[]> receivedPayloads, List<Event> failedEvents, List<Payment> payments){
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                paymentRepository.saveAll(payments);
+                for (int i = 0; i < events.size(); i++){
+                    handlePaymentResult(events.get(i), payments.get(i));
+                }
+                outboxService.saveAll(events);
+                outboxService.saveAll(failedEvents);
+            });
+        }catch (Exception ex){
+            log.error("Error trying to save payments batch, processing them one by one: ", ex);
+            receivedPayloads.forEach(payload -> realizePayment(eventCodec.decode(payload), payload));
+            outboxService.saveAll(failedEvents);
+        }
+    }
+
+    private void handlePaymentResult(Event event, Payment payment){
+        setEventAmountItens(event, payment);
+        if (EPaymentStatus.SUCCESS == payment.getStatus()){
+            handleSuccess(event);
+        }else {
+            handleFailCurrentNotExecuted(event, MIN_AMOUNT_MESSAGE);
+        }
     }
 
-    private void save(Payment payment){
-        paymentRepository.save(payment);
+
+
+    private Payment save(Payment payment){
+        return paymentRepository.save(payment);
     }
 
     private double calculateAmount(Event event){
@@ -86,15 +128,8 @@ public class PaymentService {
                 .reduce(REDUCE_SUM_VALUE, Double::sum);
     }
 
-    private void validateAmount(double totalAmount){
-        if (totalAmount < MIN_AMOUNT_VALUE){
-            throw new ValidationException("The minimum amount available is ".concat(MIN_AMOUNT_VALUE.toString()));
-        }
-    }
-
-    private void changedPaymentToSuccess(Payment payment){
-        payment.setStatus(EPaymentStatus.SUCCESS);
-        save(payment);
+    private boolean isAmountValid(double totalAmount){
+        return totalAmount >= MIN_AMOUNT_VALUE;
     }
 
     private int calculateTotalItems(Event event){
@@ -115,21 +150,28 @@ public class PaymentService {
     public void realizeRefound(Event event){
         event.setStatus(ESagaStatus.FAIL);
         event.setSource(CURRENT_SOURCE);
+        var receivedPayload = eventCodec.encode(event);
         try{
-            changePaymentStatusToRefond(event);
-            addHistory(event, "Rollback executed for payment!");
+            transactionTemplate.executeWithoutResult(status -> {
+                changePaymentStatusToRefond(event);
+                addHistory(event, "Rollback executed for payment!");
+                outboxService.save(event);
+            });
+        }catch (DataIntegrityViolationException ex){
+            throw handleDuplicatedEvent(event, ex);
         }catch (Exception ex){
-            addHistory(event, "Rollback not executed for payment: ".concat(ex.getMessage()) );
+            var failedEvent = eventCodec.decode(receivedPayload);
+            addHistory(failedEvent, "Rollback not executed for payment: ".concat(ex.getMessage()) );
+            outboxService.save(failedEvent);
         }
-        changePaymentStatusToRefond(event);
-        kafkaProducer.sendEvent(jsonUtil.toJson(event));
     }
 
     private void changePaymentStatusToRefond(Event event){
-        var payment = findByOrderIdAndTransactionId(event);
-        payment.setStatus(EPaymentStatus.REFOUND);
-        setEventAmountItens(event, payment);
-        save(payment);
+        var updatedPayments = paymentRepository.updateStatusByOrderIdAndTransactionId(
+                event.getPayload().getId(), event.getTransactionId(), EPaymentStatus.REFOUND, LocalDateTime.now());
+        if (updatedPayments == 0){
+            throw new ValidationException("Payment not found by orderId and transactionId");
+        }
     }
     private void handleFailCurrentNotExecuted(Event event, String message){
         event.setStatus(ESagaStatus.ROLLBACK_PENDING);
@@ -152,4 +194,9 @@ public class PaymentService {
                 .build();
         event.addToHistory(history);
     }
+
+    private DataIntegrityViolationException handleDuplicatedEvent(Event event, DataIntegrityViolationException ex){
+        log.error("Event for orderId {} and transactionId {} was already processed: ", event.getOrderId(), event.getTransactionId(), ex);
+        return ex;
+    }
 }
@@ -0,0 +1,189 @@
+package br.com.microservices.orchestrated.paymentservice.config.idempotency;
+
+import br.com.microservices.orchestrated.paymentservice.core.dto.Event;
+import br.com.microservices.orchestrated.paymentservice.core.dto.Order;
+import br.com.microservices.orchestrated.paymentservice.core.dto.OrderProducts;
+import br.com.microservices.orchestrated.paymentservice.core.dto.Product;
+import br.com.microservices.orchestrated.paymentservice.core.enums.ESagaStatus;
+import br.com.microservices.orchestrated.sagacommons.codec.EventCodec;
+import br.com.microservices.orchestrated.sagacommons.idempotency.IdempotentEventProcessor;
+import br.com.microservices.orchestrated.sagacommons.idempotency.ProcessedEventRepository;
+import br.com.microservices.orchestrated.sagacommons.idempotency.ProcessedEventStore;
+import br.com.microservices.orchestrated.sagacommons.kafka.SagaStep;
+import br.com.microservices.orchestrated.sagacommons.outbox.OutboxEvent;
+import br.com.microservices.orchestrated.sagacommons.outbox.OutboxEventRepository;
+import br.com.microservices.orchestrated.sagacommons.outbox.OutboxRelay;
+import br.com.microservices.orchestrated.sagacommons.outbox.OutboxService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@EmbeddedKafka(partitions = 1)
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.datasource.url=jdbc:h2:mem:payment-idempotency-db;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "management.tracing.sampling.probability=0.0",
+        "logging.level.root=WARN"
+})
+class IdempotentEventProcessorTest {
+
+    @MockBean
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private IdempotentEventProcessor<Event> idempotentEventProcessor;
+
+    @Autowired
+    private ProcessedEventStore processedEventStore;
+
+    @Autowired
+    private ProcessedEventRepository processedEventRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxService<Event> outboxService;
+
+    @Autowired
+    private EventCodec<Event> eventCodec;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private Tracer tracer;
+
+    @Autowired
+    private Propagator propagator;
+
+    private final AtomicInteger handled = new AtomicInteger();
+
+    @BeforeEach
+    void setUp(){
+        processedEventRepository.deleteAllInBatch();
+        outboxEventRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void shouldReplayADuplicateFromTheCacheWithTheIncomingStep(){
+        var transactionId = UUID.randomUUID().toString();
+
+        idempotentEventProcessor.process(createEvent(transactionId), new SagaStep(1, 1), this::handle);
+        assertEquals(1, processedEventRepository.count());
+        processedEventRepository.deleteAllInBatch();
+        outboxEventRepository.deleteAllInBatch();
+        idempotentEventProcessor.process(createEvent(transactionId), new SagaStep(3, 2), this::handle);
+
+        assertEquals(1, handled.get());
+        assertReplayed(transactionId, new SagaStep(3, 2));
+        assertEquals(0, processedEventRepository.count());
+        assertTrue(processedEventStore.findStep(transactionId).isEmpty());
+    }
+
+    @Test
+    void shouldReplayADuplicateFromTheDatabaseAfterARestart(){
+        var transactionId = UUID.randomUUID().toString();
+        idempotentEventProcessor.process(createEvent(transactionId), new SagaStep(1, 1), this::handle);
+        outboxEventRepository.deleteAllInBatch();
+
+        var restartedStore = new ProcessedEventStore(processedEventRepository, 100, 60_000);
+        var restartedOutboxService = new OutboxService<>(outboxEventRepository, outboxRelay, restartedStore, eventCodec,
+                "orchestrator", meterRegistry, tracer, propagator);
+        var restartedProcessor = new IdempotentEventProcessor<>(restartedStore, restartedOutboxService, eventCodec);
+        transactionTemplate.executeWithoutResult(status ->
+                restartedProcessor.process(createEvent(transactionId), new SagaStep(2, 1), this::handle));
+
+        assertEquals(1, handled.get());
+        assertReplayed(transactionId, new SagaStep(2, 1));
+        assertEquals(1, processedEventRepository.count());
+    }
+
+    @Test
+    void shouldNotRecordTheOutcomeWhenTheHandlerRollsBack(){
+        var transactionId = UUID.randomUUID().toString();
+        Consumer<Event> failingHandler = event -> transactionTemplate.executeWithoutResult(status -> {
+            handle(event);
+            throw new IllegalStateException("payment failed after the outbox write");
+        });
+
+        assertThrows(IllegalStateException.class, () ->
+                idempotentEventProcessor.process(createEvent(transactionId), new SagaStep(1, 1), failingHandler));
+        assertEquals(0, processedEventRepository.count());
+        assertEquals(0, outboxEventRepository.count());
+        assertTrue(processedEventStore.findOutcome(processedKey(transactionId)).isEmpty());
+
+        idempotentEventProcessor.process(createEvent(transactionId), new SagaStep(1, 2), this::handle);
+
+        assertEquals(2, handled.get());
+        assertEquals(1, processedEventRepository.count());
+        var outboxEvent = outboxEventRepository.findAll().get(0);
+        assertEquals(2, outboxEvent.getAttempt());
+    }
+
+    private void handle(Event event){
+        handled.incrementAndGet();
+        event.setSource("PAYMENT_SERVICE");
+        event.setStatus(ESagaStatus.SUCCESS);
+        outboxService.save(event);
+    }
+
+    private void assertReplayed(String transactionId, SagaStep step){
+        List<OutboxEvent> outboxEvents = outboxEventRepository.findAll();
+        assertEquals(1, outboxEvents.size());
+        var outboxEvent = outboxEvents.get(0);
+        assertEquals(transactionId, outboxEvent.getTransactionId());
+        assertEquals("PAYMENT_SERVICE", outboxEvent.getSource());
+        assertEquals(ESagaStatus.SUCCESS.name(), outboxEvent.getStatus());
+        assertEquals(step.step(), outboxEvent.getStep());
+        assertEquals(step.attempt(), outboxEvent.getAttempt());
+    }
+
+    private String processedKey(String transactionId){
+        return transactionId + ":ORCHESTRATOR:SUCCESS";
+    }
+
+    private Event createEvent(String transactionId){
+        var now = LocalDateTime.now();
+        return Event
+                .builder()
+                .id(UUID.randomUUID().toString())
+                .transactionId(transactionId)
+                .orderId("order-" + transactionId)
+                .payload(Order
+                        .builder()
+                        .id("order-" + transactionId)
+                        .products(List.of(new OrderProducts(new Product("BOOKS", 10.0), 2)))
+                        .createdAt(now)
+                        .build())
+                .source("ORCHESTRATOR")
+                .status(ESagaStatus.SUCCESS)
+                .eventHistory(new ArrayList<>())
+                .createdAt(now)
+                .build();
+    }
+}
@@ -0,0 +1,168 @@
+package br.com.microservices.orchestrated.paymentservice.config.outbox;
+
+import br.com.microservices.orchestrated.sagacommons.kafka.EDeliveryOutcome;
+import br.com.microservices.orchestrated.sagacommons.kafka.SagaEventPublisher;
+import br.com.microservices.orchestrated.sagacommons.outbox.OutboxEvent;
+import br.com.microservices.orchestrated.sagacommons.outbox.OutboxEventRepository;
+import br.com.microservices.orchestrated.sagacommons.outbox.OutboxRelay;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider.ZONKY;
+import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseType.POSTGRES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@EmbeddedKafka(partitions = 1)
+@AutoConfigureEmbeddedDatabase(type = POSTGRES, provider = ZONKY)
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "saga.outbox.poll-interval-ms=3600000",
+        "saga.outbox.claim-timeout-ms=60000",
+        "management.tracing.sampling.probability=0.0",
+        "logging.level.root=WARN"
+})
+class OutboxRelayPostgresTest {
+
+    private static final String OWNER = "relay-1";
+    private static final String OTHER_OWNER = "relay-2";
+    private static final long TIMEOUT_MS = 10_000;
+
+    @MockBean
+    private SagaEventPublisher sagaEventPublisher;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp(){
+        outboxEventRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void shouldAssignIncreasingIdsInSaveOrder(){
+        var saved = outboxEventRepository.saveAll(List.of(
+                createOutboxEvent("order-1", "first"),
+                createOutboxEvent("order-1", "second"),
+                createOutboxEvent("order-1", "third")));
+
+        assertEquals(saved.get(0).getId() + 1, saved.get(1).getId());
+        assertEquals(saved.get(1).getId() + 1, saved.get(2).getId());
+    }
+
+    @Test
+    void shouldSkipRowsLockedByAnotherRelayAndTheLaterEventsOfTheirOrders(){
+        outboxEventRepository.saveAll(List.of(
+                createOutboxEvent("order-1", "order-1-step-1"),
+                createOutboxEvent("order-1", "order-1-step-2"),
+                createOutboxEvent("order-1", "order-1-step-3"),
+                createOutboxEvent("order-2", "order-2-step-1")));
+        var requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        var claims = new TransactionTemplate(transactionManager).execute(status -> {
+            var firstClaim = claim(OWNER, 2);
+            var concurrentClaim = requiresNew.execute(nested -> claim(OTHER_OWNER, 2));
+            return List.of(firstClaim, concurrentClaim);
+        });
+
+        assertEquals(List.of("order-1-step-1", "order-1-step-2"), payloads(claims.get(0)));
+        assertEquals(List.of("order-2-step-1"), payloads(claims.get(1)));
+        assertEquals(List.of(), payloads(new TransactionTemplate(transactionManager).execute(status -> claim(OTHER_OWNER, 2))));
+    }
+
+    @Test
+    void shouldRelayTheEventsOfAnOrderInSaveOrderAcrossAFailedSend(){
+        outboxEventRepository.saveAll(List.of(
+                createOutboxEvent("order-1", "order-1-step-1"),
+                createOutboxEvent("order-2", "order-2-step-1"),
+                createOutboxEvent("order-1", "order-1-step-2"),
+                createOutboxEvent("order-1", "order-1-step-3")));
+        var attempts = Collections.synchronizedList(new ArrayList<String>());
+        var failed = new AtomicBoolean();
+        when(sagaEventPublisher.sendWithoutDeadLetter(any())).thenAnswer(invocation -> {
+            var payload = payload(invocation.getArgument(0, ProducerRecord.class));
+            attempts.add(payload);
+            if ("order-1-step-2".equals(payload) && failed.compareAndSet(false, true)){
+                return CompletableFuture.failedFuture(new IllegalStateException("broker unavailable"));
+            }
+            return CompletableFuture.completedFuture(EDeliveryOutcome.DELIVERED);
+        });
+
+        outboxRelay.poll();
+        await(() -> outboxEventRepository.count() == 2);
+        outboxRelay.poll();
+        await(() -> outboxEventRepository.count() == 0);
+
+        assertEquals(List.of("order-1-step-1", "order-1-step-2", "order-1-step-2", "order-1-step-3"),
+                attempts.stream().filter(payload -> payload.startsWith("order-1")).toList());
+        assertTrue(attempts.contains("order-2-step-1"));
+    }
+
+    private List<OutboxEvent> claim(String owner, int batchSize){
+        var now = LocalDateTime.now();
+        return outboxEventRepository.claimNextBatch(owner, now, now.plusMinutes(1), batchSize);
+    }
+
+    private List<String> payloads(List<OutboxEvent> outboxEvents){
+        return outboxEvents
+                .stream()
+                .map(outboxEvent -> new String(outboxEvent.getPayload(), StandardCharsets.UTF_8))
+                .sorted()
+                .toList();
+    }
+
+    private String payload(ProducerRecord<?, ?> record){
+        return new String((byte[]) record.value(), StandardCharsets.UTF_8);
+    }
+
+    private void await(BooleanSupplier condition){
+        var deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!condition.getAsBoolean()){
+            assertTrue(System.currentTimeMillis() < deadline, "Outbox relay did not reach the expected state in time");
+            try {
+                Thread.sleep(50);
+            }catch (InterruptedException ex){
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+
+    private OutboxEvent createOutboxEvent(String orderId, String payload){
+        return OutboxEvent
+                .builder()
+                .topic("orchestrator")
+                .orderId(orderId)
+                .transactionId(orderId + "-transaction")
+                .eventId(payload)
+                .payload(payload.getBytes(StandardCharsets.UTF_8))
+                .build();
+    }
+}
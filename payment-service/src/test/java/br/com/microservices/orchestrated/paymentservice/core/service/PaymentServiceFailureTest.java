@@ -0,0 +1,112 @@
+package br.com.microservices.orchestrated.paymentservice.core.service;
+
+import br.com.microservices.orchestrated.paymentservice.core.dto.Event;
+import br.com.microservices.orchestrated.paymentservice.core.dto.History;
+import br.com.microservices.orchestrated.paymentservice.core.dto.Order;
+import br.com.microservices.orchestrated.paymentservice.core.dto.OrderProducts;
+import br.com.microservices.orchestrated.paymentservice.core.dto.Product;
+import br.com.microservices.orchestrated.paymentservice.core.enums.ESagaStatus;
+import br.com.microservices.orchestrated.paymentservice.core.model.Payment;
+import br.com.microservices.orchestrated.paymentservice.core.repository.PaymentRepository;
+import br.com.microservices.orchestrated.sagacommons.codec.EHistoryMode;
+import br.com.microservices.orchestrated.sagacommons.codec.EWireFormat;
+import br.com.microservices.orchestrated.sagacommons.codec.EventCodec;
+import br.com.microservices.orchestrated.sagacommons.outbox.OutboxService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaymentServiceFailureTest {
+
+    private final PaymentRepository paymentRepository = mock(PaymentRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+
+    @SuppressWarnings("unchecked")
+    private final OutboxService<Event> outboxService = mock(OutboxService.class);
+
+    private PaymentService paymentService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp(){
+        var eventCodec = new EventCodec<>(new ObjectMapper().findAndRegisterModules(), Event.class, EWireFormat.JSON, EHistoryMode.FULL);
+        paymentService = new PaymentService(outboxService, paymentRepository, transactionTemplate, eventCodec);
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void shouldSendTheReceivedEventAsFailureWhenTheOutboxFailsAfterThePaymentResult(){
+        var event = createEvent();
+        doThrow(new IllegalStateException("outbox is unavailable")).doNothing().when(outboxService).save(any(Event.class));
+
+        paymentService.realizePayment(event);
+
+        var saved = ArgumentCaptor.forClass(Event.class);
+        verify(outboxService, times(2)).save(saved.capture());
+        var failedEvent = saved.getAllValues().get(1);
+        assertEquals(ESagaStatus.ROLLBACK_PENDING, failedEvent.getStatus());
+        assertEquals(1, failedEvent.getEventHistory().size());
+        assertTrue(failedEvent.getEventHistory().get(0).getMessage().contains("outbox is unavailable"));
+        assertNull(failedEvent.getPayload().getTotalAmount());
+        assertNull(failedEvent.getPayload().getTotalItems());
+    }
+
+    @Test
+    void shouldSendTheRefundFailureWithoutTheRollbackExecutedHistory(){
+        var event = createEvent();
+        when(paymentRepository.updateStatusByOrderIdAndTransactionId(any(), any(), any(), any())).thenReturn(1);
+        doThrow(new IllegalStateException("outbox is unavailable")).doNothing().when(outboxService).save(any(Event.class));
+
+        paymentService.realizeRefound(event);
+
+        var saved = ArgumentCaptor.forClass(Event.class);
+        verify(outboxService, times(2)).save(saved.capture());
+        var failedEvent = saved.getAllValues().get(1);
+        assertEquals(ESagaStatus.FAIL, failedEvent.getStatus());
+        assertEquals(List.of("Rollback not executed for payment: outbox is unavailable"),
+                failedEvent.getEventHistory().stream().map(History::getMessage).toList());
+    }
+
+    private Event createEvent(){
+        var now = LocalDateTime.now();
+        return Event
+                .builder()
+                .id("event-1")
+                .transactionId("transaction-1")
+                .orderId("order-1")
+                .payload(Order
+                        .builder()
+                        .id("order-1")
+                        .products(List.of(new OrderProducts(new Product("BOOKS", 10.0), 2)))
+                        .createdAt(now)
+                        .build())
+                .source("ORCHESTRATOR")
+                .status(ESagaStatus.SUCCESS)
+                .eventHistory(new ArrayList<>())
+                .createdAt(now)
+                .build();
+    }
+}
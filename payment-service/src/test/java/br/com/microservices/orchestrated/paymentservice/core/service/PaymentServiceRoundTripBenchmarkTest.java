@@ -0,0 +1,207 @@
+package br.com.microservices.orchestrated.paymentservice.core.service;
+
+import br.com.microservices.orchestrated.paymentservice.config.execption.ValidationException;
+import br.com.microservices.orchestrated.paymentservice.core.dto.Event;
+import br.com.microservices.orchestrated.paymentservice.core.dto.Order;
+import br.com.microservices.orchestrated.paymentservice.core.dto.OrderProducts;
+import br.com.microservices.orchestrated.paymentservice.core.dto.Product;
+import br.com.microservices.orchestrated.paymentservice.core.enums.EPaymentStatus;
+import br.com.microservices.orchestrated.paymentservice.core.enums.ESagaStatus;
+import br.com.microservices.orchestrated.paymentservice.core.model.Payment;
+import br.com.microservices.orchestrated.paymentservice.core.repository.PaymentRepository;
+import br.com.microservices.orchestrated.sagacommons.idempotency.IdempotentEventProcessor;
+import br.com.microservices.orchestrated.sagacommons.outbox.OutboxRelay;
+import br.com.microservices.orchestrated.sagacommons.outbox.OutboxService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@EmbeddedKafka(partitions = 1)
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.datasource.url=jdbc:h2:mem:payment-db;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "management.tracing.sampling.probability=0.0",
+        "logging.level.root=WARN"
+})
+class PaymentServiceRoundTripBenchmarkTest {
+
+    private static final int WARMUP_EVENTS = 500;
+    private static final int EVENTS = 2_000;
+    private static final int PRODUCTS_PER_ORDER = 3;
+
+    @MockBean
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private OutboxService<Event> outboxService;
+
+    @Autowired
+    private IdempotentEventProcessor<Event> idempotentEventProcessor;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void shouldUseFewerRoundTripsPerPaymentThanTheSaveReloadSaveLifecycle(){
+        var legacyPaymentService = new LegacyPaymentService(paymentRepository, outboxService);
+        measure("legacy-warmup", WARMUP_EVENTS, legacyPaymentService::realizePayment);
+        measure("warmup", WARMUP_EVENTS, paymentService::realizePayment);
+
+        var legacy = measure("legacy-payment", EVENTS, legacyPaymentService::realizePayment);
+        var current = measure("payment", EVENTS, paymentService::realizePayment);
+
+        System.out.printf("Payment round trips: legacy %.2f statements/event, current %.2f statements/event%n", legacy, current);
+        assertTrue(current < legacy, "Payment lifecycle must use fewer statements per event than save/reload/save");
+        assertEquals(2 * (WARMUP_EVENTS + EVENTS), paymentRepository.count());
+    }
+
+    @Test
+    void shouldUseFewerRoundTripsPerRefundThanTheDoubleReloadRefund(){
+        var legacyPaymentService = new LegacyPaymentService(paymentRepository, outboxService);
+        var legacyEvents = createPayments("legacy-refund", EVENTS);
+        var events = createPayments("refund", EVENTS);
+
+        var legacy = measure("legacy-refund", legacyEvents, legacyPaymentService::realizeRefound);
+        var current = measure("refund", events, paymentService::realizeRefound);
+
+        System.out.printf("Refund round trips: legacy %.2f statements/event, current %.2f statements/event%n", legacy, current);
+        assertTrue(current < legacy, "Refund must use fewer statements per event than the double reload refund");
+        events.forEach(event -> assertEquals(EPaymentStatus.REFOUND, paymentRepository
+                .findByOrderIdAndTransactionId(event.getPayload().getId(), event.getTransactionId())
+                .orElseThrow()
+                .getStatus()));
+    }
+
+    private double measure(String prefix, int count, Consumer<Event> handler){
+        return measure(prefix, createEvents(prefix, count), handler);
+    }
+
+    private double measure(String prefix, List<Event> events, Consumer<Event> handler){
+        var statistics = getStatistics();
+        statistics.clear();
+        var start = System.nanoTime();
+        events.forEach(event -> idempotentEventProcessor.process(event, null, handler));
+        var elapsedNanos = System.nanoTime() - start;
+        var statements = statistics.getPrepareStatementCount() / (double) events.size();
+        System.out.printf("Payment %s: %d events, %.2f statements/event, %d us/event%n",
+                prefix, events.size(), statements, TimeUnit.NANOSECONDS.toMicros(elapsedNanos / events.size()));
+        return statements;
+    }
+
+    private List<Event> createPayments(String prefix, int count){
+        var events = createEvents(prefix, count);
+        paymentRepository.saveAll(events
+                .stream()
+                .map(event -> Payment
+                        .builder()
+                        .orderId(event.getPayload().getId())
+                        .transactionId(event.getTransactionId())
+                        .totalAmount(event.getPayload().getTotalAmount())
+                        .totalItems(event.getPayload().getTotalItems())
+                        .status(EPaymentStatus.SUCCESS)
+                        .build())
+                .toList());
+        return events;
+    }
+
+    private List<Event> createEvents(String prefix, int count){
+        return IntStream
+                .range(0, count)
+                .mapToObj(index -> createEvent(prefix + "-" + index))
+                .toList();
+    }
+
+    private Event createEvent(String orderId){
+        var products = IntStream
+                .range(0, PRODUCTS_PER_ORDER)
+                .mapToObj(index -> new OrderProducts(new Product("PRODUCT_" + index, 10.0 * (index + 1)), index + 1))
+                .toList();
+        var now = LocalDateTime.now();
+        return Event
+                .builder()
+                .id(UUID.randomUUID().toString())
+                .transactionId(UUID.randomUUID().toString())
+                .orderId(orderId)
+                .payload(Order
+                        .builder()
+                        .id(orderId)
+                        .products(products)
+                        .createdAt(now)
+                        .totalAmount(140.0)
+                        .totalItems(6)
+                        .build())
+                .source("ORCHESTRATOR")
+                .status(ESagaStatus.SUCCESS)
+                .eventHistory(new ArrayList<>())
+                .createdAt(now)
+                .build();
+    }
+
+    private Statistics getStatistics(){
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private record LegacyPaymentService(PaymentRepository paymentRepository, OutboxService<Event> outboxService) {
+
+        void realizePayment(Event event){
+            paymentRepository.save(Payment
+                    .builder()
+                    .orderId(event.getPayload().getId())
+                    .transactionId(event.getTransactionId())
+                    .totalAmount(event.getPayload().getTotalAmount())
+                    .totalItems(event.getPayload().getTotalItems())
+                    .build());
+            var payment = findPayment(event);
+            payment.setStatus(EPaymentStatus.SUCCESS);
+            paymentRepository.save(payment);
+            event.setStatus(ESagaStatus.SUCCESS);
+            event.setSource("PAYMENT_SERVICE");
+            outboxService.save(event);
+        }
+
+        void realizeRefound(Event event){
+            event.setStatus(ESagaStatus.FAIL);
+            event.setSource("PAYMENT_SERVICE");
+            changePaymentStatusToRefond(event);
+            changePaymentStatusToRefond(event);
+            outboxService.save(event);
+        }
+
+        private void changePaymentStatusToRefond(Event event){
+            var payment = findPayment(event);
+            payment.setStatus(EPaymentStatus.REFOUND);
+            paymentRepository.save(payment);
+        }
+
+        private Payment findPayment(Event event){
+            return paymentRepository.findByOrderIdAndTransactionId(event.getPayload().getId(), event.getTransactionId())
+                    .orElseThrow(() -> new ValidationException("Payment not found by orderId and transactionId"));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.microservices.orchestrated.productvalidationservice.core.cache;
+
+import br.com.microservices.orchestrated.productvalidationservice.core.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductCatalogCache {
+
+    private final ProductRepository productRepository;
+
+    private volatile Set<String> productCodes = Set.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load(){
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${product-catalog.cache.ttl-ms}", initialDelayString = "${product-catalog.cache.ttl-ms}")
+    public int refresh(){
+        productCodes = Set.copyOf(productRepository.findAllCodes());
+        log.info("Product catalog cache refreshed with {} products", productCodes.size());
+        return productCodes.size();
+    }
+
+    public List<String> findMissingCodes(Collection<String> codes){
+        var cachedCodes = productCodes;
+        var misses = new LinkedHashSet<String>();
+        for (var code : codes){
+            if (!cachedCodes.contains(code)){
+                misses.add(code);
+            }
+        }
+        if (misses.isEmpty()){
+            return List.of();
+        }
+        var foundCodes = productRepository.findCodesByCodeIn(misses);
+        addToCache(foundCodes);
+        foundCodes.forEach(misses::remove);
+        return List.copyOf(misses);
+    }
+
+    private synchronized void addToCache(List<String> codes){
+        if (codes.isEmpty()){
+            return;
+        }
+        var updatedCodes = new HashSet<>(productCodes);
+        updatedCodes.addAll(codes);
+        productCodes = Set.copyOf(updatedCodes);
+    }
+}
@@ -1,9 +1,13 @@
 package br.com.microservices.orchestrated.productvalidationservice.core.consumer;
 
+import br.com.microservices.orchestrated.sagacommons.idempotency.IdempotentEventProcessor;
 import br.com.microservices.orchestrated.productvalidationservice.core.service.ProductValidationService;
-import br.com.microservices.orchestrated.productvalidationservice.core.utils.JsonUtil;
+import br.com.microservices.orchestrated.productvalidationservice.core.dto.Event;
+import br.com.microservices.orchestrated.sagacommons.codec.EventCodec;
+import br.com.microservices.orchestrated.sagacommons.kafka.SagaHeaders;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
@@ -13,26 +17,28 @@ import org.springframework.stereotype.Component;
 public class ProductValidationConsumer {
 
     private final ProductValidationService productValidationService;
-    private final JsonUtil jsonUtil;
+
+    private final IdempotentEventProcessor<Event> idempotentEventProcessor;
+    private final EventCodec<Event> eventCodec;
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.product-validation-success}"
     )
-    public void consumerSuccessEvent(String paylad){
-        log.info("Receiving success event {} from product-validation-success topic", paylad);
-        var event = jsonUtil.toEvent(paylad);
-        productValidationService.validateExistingProducts(event);
+    public void consumerSuccessEvent(ConsumerRecord<String, byte[]> record){
+        var event = eventCodec.decode(record.value());
+        log.info("Receiving success event {} from product-validation-success topic", event);
+        idempotentEventProcessor.process(event, SagaHeaders.readStep(record.headers()).orElse(null), productValidationService::validateExistingProducts);
     }
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
             topics = "${spring.kafka.topic.product-validation-fail}"
     )
-    public void consumerFailEvent(String paylad){
-        log.info("Receiving rollback event {} from product-validation-fail topic", paylad);
-        var event = jsonUtil.toEvent(paylad);
-        productValidationService.rollbackEvent(event);
+    public void consumerFailEvent(ConsumerRecord<String, byte[]> record){
+        var event = eventCodec.decode(record.value());
+        log.info("Receiving rollback event {} from product-validation-fail topic", event);
+        idempotentEventProcessor.process(event, SagaHeaders.readStep(record.headers()).orElse(null), productValidationService::rollbackEvent);
     }
 
 
@@ -0,0 +1,20 @@
+package br.com.microservices.orchestrated.productvalidationservice.core.controller;
+
+import br.com.microservices.orchestrated.productvalidationservice.core.cache.ProductCatalogCache;
+import lombok.AllArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping("/api/product-catalog")
+public class ProductCatalogController {
+
+    private final ProductCatalogCache productCatalogCache;
+
+    @PostMapping("refresh")
+    public int refresh(){
+        return productCatalogCache.refresh();
+    }
+}
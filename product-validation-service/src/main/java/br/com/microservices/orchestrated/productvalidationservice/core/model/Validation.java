@@ -13,7 +13,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Entity
 @Builder
-@Table(name = "validation")
+@Table(name = "validation", uniqueConstraints = @UniqueConstraint(name = "uk_validation_order_transaction", columnNames = {"orderId", "transactionId"}))
 public class Validation {
 
     @Id
@@ -2,10 +2,19 @@ package br.com.microservices.orchestrated.productvalidationservice.core.reposito
 
 import br.com.microservices.orchestrated.productvalidationservice.core.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Integer> {
 
-    Boolean existsByCode(String code);
+    @Query("SELECT p.code FROM Product p")
+    List<String> findAllCodes();
+
+    @Query("SELECT p.code FROM Product p WHERE p.code IN :codes")
+    List<String> findCodesByCodeIn(@Param("codes") Collection<String> codes);
 }
@@ -9,7 +9,5 @@ import java.util.Optional;
 @Repository
 public interface ValidationRepository extends JpaRepository<Validation, Integer> {
 
-    Boolean existsByOrderIdAndTransactionId(String orderId, String transactionId);
-
     Optional<Validation> findByOrderIdAndTransactionId(String orderId, String transactionId);
 }
@@ -1,18 +1,20 @@
 package br.com.microservices.orchestrated.productvalidationservice.core.service;
 
 import br.com.microservices.orchestrated.productvalidationservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.productvalidationservice.core.cache.ProductCatalogCache;
 import br.com.microservices.orchestrated.productvalidationservice.core.dto.Event;
 import br.com.microservices.orchestrated.productvalidationservice.core.dto.History;
 import br.com.microservices.orchestrated.productvalidationservice.core.dto.OrderProducts;
 import br.com.microservices.orchestrated.productvalidationservice.core.enums.ESagaStatus;
 import br.com.microservices.orchestrated.productvalidationservice.core.model.Validation;
-import br.com.microservices.orchestrated.productvalidationservice.core.producer.KafkaProducer;
-import br.com.microservices.orchestrated.productvalidationservice.core.repository.ProductRepository;
+import br.com.microservices.orchestrated.sagacommons.codec.EventCodec;
+import br.com.microservices.orchestrated.sagacommons.outbox.OutboxService;
 import br.com.microservices.orchestrated.productvalidationservice.core.repository.ValidationRepository;
-import br.com.microservices.orchestrated.productvalidationservice.core.utils.JsonUtil;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.ObjectUtils;
 
 import java.time.LocalDateTime;
@@ -26,21 +28,29 @@ public class ProductValidationService {
 
     private static final String CURRENT_SOURCE = "PRODUCT_VALIDATION_SERVICE";
 
-    private final JsonUtil jsonUtil;
-    private final KafkaProducer kafkaProducer;
-    private final ProductRepository productRepository;
+    private final OutboxService<Event> outboxService;
+    private final ProductCatalogCache productCatalogCache;
     private final ValidationRepository validationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EventCodec<Event> eventCodec;
 
     public void validateExistingProducts(Event event){
+        var receivedPayload = eventCodec.encode(event);
         try {
             checkCurrentValidation(event);
-            createValidation(event, true);
-            handleSuccess(event);
+            transactionTemplate.executeWithoutResult(status -> {
+                createValidation(event, true);
+                handleSuccess(event);
+                outboxService.save(event);
+            });
+        }catch (DataIntegrityViolationException ex){
+            throw handleDuplicatedEvent(event, ex);
         }catch (Exception ex){
             log.error("Error trying to validate products: ", ex);
-            handleFailCurrentNotExecuted(event, ex.getMessage());
+            var failedEvent = eventCodec.decode(receivedPayload);
+            handleFailCurrentNotExecuted(failedEvent, ex.getMessage());
+            outboxService.save(failedEvent);
         }
-        kafkaProducer.sendEvent(jsonUtil.toJson(event));
     }
 
 
@@ -56,14 +66,8 @@ public class ProductValidationService {
     }
     private void checkCurrentValidation(Event event) {
         validateProductsInformed(event);
-        if (validationRepository.existsByOrderIdAndTransactionId(event.getOrderId(), event.getTransactionId())){
-            throw new ValidationException("there's another transactionId for this validation");
-        }
-        event.getPayload().getProducts().forEach(orderProducts -> {
-            validateProcustInformed(orderProducts);
-            validateExistsProduct(orderProducts.getProduct().getCode());
-        });
-
+        event.getPayload().getProducts().forEach(this::validateProcustInformed);
+        validateExistsProducts(event);
     }
 
     private void validateProcustInformed(OrderProducts products){
@@ -71,8 +75,14 @@ public class ProductValidationService {
             throw new ValidationException("Product  must be informed!");
         }
     }
-    private void validateExistsProduct(String code){
-        if (!productRepository.existsByCode(code)){
+    private void validateExistsProducts(Event event){
+        var codes = event
+                .getPayload()
+                .getProducts()
+                .stream()
+                .map(orderProducts -> orderProducts.getProduct().getCode())
+                .toList();
+        if (!productCatalogCache.findMissingCodes(codes).isEmpty()){
             throw new ValidationException("Product does not exists in database!");
         }
     }
@@ -111,11 +121,13 @@ public class ProductValidationService {
     }
 
     public void rollbackEvent(Event event){
-        changeValidationToFail(event);
-        event.setStatus(ESagaStatus.FAIL);
-        event.setSource(CURRENT_SOURCE);
-        addHistory(event, "Rollback executed on product validation!");
-        kafkaProducer.sendEvent(jsonUtil.toJson(event));
+        transactionTemplate.executeWithoutResult(status -> {
+            changeValidationToFail(event);
+            event.setStatus(ESagaStatus.FAIL);
+            event.setSource(CURRENT_SOURCE);
+            addHistory(event, "Rollback executed on product validation!");
+            outboxService.save(event);
+        });
     }
 
     private void changeValidationToFail(Event event) {
@@ -126,4 +138,8 @@ public class ProductValidationService {
                 }, () -> createValidation(event, false));
     }
 
+    private DataIntegrityViolationException handleDuplicatedEvent(Event event, DataIntegrityViolationException ex){
+        log.error("Event for orderId {} and transactionId {} was already processed: ", event.getOrderId(), event.getTransactionId(), ex);
+        return ex;
+    }
 }
@@ -0,0 +1,92 @@
+package br.com.microservices.orchestrated.sagacommons.codec;
+
+import br.com.microservices.orchestrated.sagacommons.codec.SagaEventFixture.Event;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventCodecBenchmark {
+
+    @Param({"1", "7", "13"})
+    private int history;
+
+    @Param({"3"})
+    private int products;
+
+    private ObjectMapper objectMapper;
+    private EventCodec<Event> jsonCodec;
+    private EventCodec<Event> cborCodec;
+    private Event event;
+    private byte[] jacksonPayload;
+    private byte[] jsonPayload;
+    private byte[] cborPayload;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = SagaEventFixture.createObjectMapper();
+        jsonCodec = new EventCodec<>(objectMapper, Event.class, EWireFormat.JSON);
+        cborCodec = new EventCodec<>(objectMapper, Event.class, EWireFormat.CBOR);
+        event = SagaEventFixture.createEvent(products, history);
+        jacksonPayload = objectMapper.writeValueAsString(event).getBytes(StandardCharsets.UTF_8);
+        jsonPayload = jsonCodec.encode(event);
+        cborPayload = cborCodec.encode(event);
+    }
+
+    @Benchmark
+    public byte[] encodeJacksonString() throws Exception {
+        return objectMapper.writeValueAsString(event).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() {
+        return jsonCodec.encode(event);
+    }
+
+    @Benchmark
+    public byte[] encodeCbor() {
+        return cborCodec.encode(event);
+    }
+
+    @Benchmark
+    public Event decodeJacksonString() throws Exception {
+        return objectMapper.readValue(new String(jacksonPayload, StandardCharsets.UTF_8), Event.class);
+    }
+
+    @Benchmark
+    public Event decodeJson() {
+        return jsonCodec.decode(jsonPayload);
+    }
+
+    @Benchmark
+    public Event decodeCbor() {
+        return cborCodec.decode(cborPayload);
+    }
+
+    @Benchmark
+    public EventHeader decodeJsonHeader() {
+        return jsonCodec.decodeHeader(jsonPayload);
+    }
+
+    @Benchmark
+    public EventHeader decodeCborHeader() {
+        return cborCodec.decodeHeader(cborPayload);
+    }
+}
@@ -0,0 +1,9 @@
+package br.com.microservices.orchestrated.sagacommons.codec;
+
+public enum EDecodeError {
+
+    EMPTY_PAYLOAD,
+    MALFORMED_PAYLOAD,
+    INVALID_EVENT,
+    UNSUPPORTED_VERSION
+}
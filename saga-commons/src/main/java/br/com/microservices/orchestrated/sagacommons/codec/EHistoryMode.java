@@ -0,0 +1,7 @@
+package br.com.microservices.orchestrated.sagacommons.codec;
+
+public enum EHistoryMode {
+
+    FULL,
+    DELTA
+}
@@ -0,0 +1,225 @@
+package br.com.microservices.orchestrated.sagacommons.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.exc.StreamReadException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.cbor.CBORParser;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+public class EventCodec<T> {
+
+    // CBOR payloads start with a format marker and a format version. Readers accept every version up to
+    // CBOR_FORMAT_VERSION and reject newer ones, so a new version may only be written once every consumer
+    // reads it. Payloads with the self-describe tag and no marker predate the version byte and stay readable.
+    static final byte CBOR_FORMAT_MARKER = (byte) 0xCB;
+    static final byte CBOR_FORMAT_VERSION = 1;
+
+    private static final int CBOR_PREFIX_LENGTH = 2;
+    private static final byte[] CBOR_SELF_DESCRIBE_TAG = {(byte) 0xD9, (byte) 0xD9, (byte) 0xF7};
+
+    private static final String ID = "id";
+    private static final String TRANSACTION_ID = "transactionId";
+    private static final String ORDER_ID = "orderId";
+    private static final String SOURCE = "source";
+    private static final String STATUS = "status";
+
+    static final String EVENT_HISTORY = "eventHistory";
+
+    private final EWireFormat wireFormat;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper cborMapper;
+    private final ObjectReader jsonReader;
+    private final ObjectWriter jsonWriter;
+    private final ObjectReader cborReader;
+    private final ObjectWriter cborWriter;
+
+    public EventCodec(ObjectMapper objectMapper, Class<T> type, EWireFormat wireFormat) {
+        this(objectMapper, type, wireFormat, EHistoryMode.FULL);
+    }
+
+    public EventCodec(ObjectMapper objectMapper, Class<T> type, EWireFormat wireFormat, EHistoryMode historyMode) {
+        this.wireFormat = wireFormat;
+        this.jsonMapper = objectMapper;
+        this.cborMapper = createCborMapper();
+        this.jsonWriter = jsonMapper.writerFor(type);
+        this.cborWriter = cborMapper.writerFor(type);
+        if (EHistoryMode.DELTA == historyMode) {
+            this.jsonReader = jsonMapper.copy().addMixIn(type, IgnoreHistoryMixin.class).readerFor(type);
+            this.cborReader = cborMapper.copy().addMixIn(type, IgnoreHistoryMixin.class).readerFor(type);
+        } else {
+            this.jsonReader = jsonMapper.readerFor(type);
+            this.cborReader = cborMapper.readerFor(type);
+        }
+    }
+
+    public byte[] encode(T event) {
+        try {
+            return EWireFormat.CBOR == wireFormat
+                    ? encodeCbor(event)
+                    : jsonWriter.writeValueAsBytes(event);
+        } catch (IOException ex) {
+            throw new EventEncodeException("Erro trying to encode event as ".concat(wireFormat.name()), ex);
+        }
+    }
+
+    public T decode(byte[] payload) {
+        validatePayload(payload);
+        var offset = getBodyOffset(payload);
+        try {
+            return getReader(payload).readValue(payload, offset, payload.length - offset);
+        } catch (StreamReadException ex) {
+            throw new EventDecodeException(EDecodeError.MALFORMED_PAYLOAD, "Event payload is malformed.", ex);
+        } catch (IOException ex) {
+            throw new EventDecodeException(EDecodeError.INVALID_EVENT, "Event payload does not match the event structure.", ex);
+        }
+    }
+
+    public EventHeader decodeHeader(byte[] payload) {
+        validatePayload(payload);
+        var offset = getBodyOffset(payload);
+        try (var parser = getFactory(payload).createParser(payload, offset, payload.length - offset)) {
+            if (JsonToken.START_OBJECT != parser.nextToken()) {
+                throw new EventDecodeException(EDecodeError.INVALID_EVENT, "Event payload is not an object.");
+            }
+            return readHeader(parser);
+        } catch (StreamReadException ex) {
+            throw new EventDecodeException(EDecodeError.MALFORMED_PAYLOAD, "Event payload is malformed.", ex);
+        } catch (IOException ex) {
+            throw new EventDecodeException(EDecodeError.INVALID_EVENT, "Event payload does not match the event structure.", ex);
+        }
+    }
+
+    public <H> List<H> decodeHistory(byte[] payload, Class<H> type) {
+        validatePayload(payload);
+        var mapper = isCbor(payload) ? cborMapper : jsonMapper;
+        var offset = getBodyOffset(payload);
+        try (var parser = mapper.createParser(payload, offset, payload.length - offset)) {
+            if (JsonToken.START_OBJECT != parser.nextToken()) {
+                throw new EventDecodeException(EDecodeError.INVALID_EVENT, "Event payload is not an object.");
+            }
+            while (JsonToken.FIELD_NAME == parser.nextToken()) {
+                var field = parser.currentName();
+                var token = parser.nextToken();
+                if (EVENT_HISTORY.equals(field)) {
+                    return JsonToken.VALUE_NULL == token
+                            ? List.of()
+                            : mapper.readerForListOf(type).readValue(parser);
+                }
+                skipValue(parser);
+            }
+            return List.of();
+        } catch (StreamReadException ex) {
+            throw new EventDecodeException(EDecodeError.MALFORMED_PAYLOAD, "Event payload is malformed.", ex);
+        } catch (IOException ex) {
+            throw new EventDecodeException(EDecodeError.INVALID_EVENT, "Event history does not match the history structure.", ex);
+        }
+    }
+
+    private EventHeader readHeader(JsonParser parser) throws IOException {
+        String id = null;
+        String transactionId = null;
+        String orderId = null;
+        String source = null;
+        String status = null;
+        while (JsonToken.FIELD_NAME == parser.nextToken()) {
+            var field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case ID -> id = parser.getValueAsString();
+                case TRANSACTION_ID -> transactionId = parser.getValueAsString();
+                case ORDER_ID -> orderId = parser.getValueAsString();
+                case SOURCE -> source = parser.getValueAsString();
+                case STATUS -> status = parser.getValueAsString();
+                default -> skipValue(parser);
+            }
+            if (id != null && transactionId != null && orderId != null && source != null && status != null) {
+                break;
+            }
+        }
+        return new EventHeader(id, transactionId, orderId, source, status);
+    }
+
+    private void skipValue(JsonParser parser) throws IOException {
+        if (!(parser instanceof CBORParser)) {
+            parser.skipChildren();
+            return;
+        }
+        // CBOR string references point at every string read before them, so skipped strings are still read.
+        var depth = 0;
+        var token = parser.currentToken();
+        do {
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd()) {
+                depth--;
+            } else if (JsonToken.VALUE_STRING == token) {
+                parser.getText();
+            }
+        } while (depth > 0 && (token = parser.nextToken()) != null);
+    }
+
+    private byte[] encodeCbor(T event) throws IOException {
+        var output = new ByteArrayOutputStream();
+        output.write(CBOR_FORMAT_MARKER);
+        output.write(CBOR_FORMAT_VERSION);
+        cborWriter.writeValue(output, event);
+        return output.toByteArray();
+    }
+
+    private ObjectMapper createCborMapper() {
+        return CBORMapper
+                .builder()
+                .enable(CBORGenerator.Feature.STRINGREF)
+                .enable(CBORGenerator.Feature.WRITE_MINIMAL_DOUBLES)
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .addModule(new JavaTimeModule())
+                .build();
+    }
+
+    private void validatePayload(byte[] payload) {
+        if (payload == null || payload.length == 0) {
+            throw new EventDecodeException(EDecodeError.EMPTY_PAYLOAD, "Event payload is empty.");
+        }
+    }
+
+    private ObjectReader getReader(byte[] payload) {
+        return isCbor(payload) ? cborReader : jsonReader;
+    }
+
+    private JsonFactory getFactory(byte[] payload) {
+        return getReader(payload).getFactory();
+    }
+
+    private int getBodyOffset(byte[] payload) {
+        if (CBOR_FORMAT_MARKER != payload[0]) {
+            return 0;
+        }
+        if (payload.length <= CBOR_PREFIX_LENGTH) {
+            throw new EventDecodeException(EDecodeError.MALFORMED_PAYLOAD, "Event payload has no body after its format version.");
+        }
+        if (payload[1] < 1 || payload[1] > CBOR_FORMAT_VERSION) {
+            throw new EventDecodeException(EDecodeError.UNSUPPORTED_VERSION,
+                    "Event payload format version " + payload[1] + " is not supported.");
+        }
+        return CBOR_PREFIX_LENGTH;
+    }
+
+    private boolean isCbor(byte[] payload) {
+        return CBOR_FORMAT_MARKER == payload[0] || payload.length > CBOR_SELF_DESCRIBE_TAG.length
+                && Arrays.equals(payload, 0, CBOR_SELF_DESCRIBE_TAG.length, CBOR_SELF_DESCRIBE_TAG, 0, CBOR_SELF_DESCRIBE_TAG.length);
+    }
+}
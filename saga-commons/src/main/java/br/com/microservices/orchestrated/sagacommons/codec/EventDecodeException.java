@@ -0,0 +1,22 @@
+package br.com.microservices.orchestrated.sagacommons.codec;
+
+public class EventDecodeException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final EDecodeError error;
+
+    public EventDecodeException(EDecodeError error, String message) {
+        super(message);
+        this.error = error;
+    }
+
+    public EventDecodeException(EDecodeError error, String message, Throwable cause) {
+        super(message, cause);
+        this.error = error;
+    }
+
+    public EDecodeError getError() {
+        return error;
+    }
+}
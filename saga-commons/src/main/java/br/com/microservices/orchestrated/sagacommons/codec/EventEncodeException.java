@@ -0,0 +1,10 @@
+package br.com.microservices.orchestrated.sagacommons.codec;
+
+public class EventEncodeException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public EventEncodeException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
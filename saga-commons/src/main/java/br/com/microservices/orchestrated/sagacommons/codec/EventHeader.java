@@ -0,0 +1,8 @@
+package br.com.microservices.orchestrated.sagacommons.codec;
+
+public record EventHeader(String id,
+                          String transactionId,
+                          String orderId,
+                          String source,
+                          String status) {
+}
@@ -0,0 +1,7 @@
+package br.com.microservices.orchestrated.sagacommons.codec;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+@JsonIgnoreProperties(value = EventCodec.EVENT_HISTORY, allowGetters = true)
+abstract class IgnoreHistoryMixin {
+}
@@ -0,0 +1,6 @@
+package br.com.microservices.orchestrated.sagacommons.codec;
+
+public interface SagaEvent {
+
+    EventHeader toHeader();
+}
@@ -0,0 +1,82 @@
+package br.com.microservices.orchestrated.sagacommons.idempotency;
+
+import br.com.microservices.orchestrated.sagacommons.codec.EventCodec;
+import br.com.microservices.orchestrated.sagacommons.codec.SagaEvent;
+import br.com.microservices.orchestrated.sagacommons.kafka.SagaStep;
+import br.com.microservices.orchestrated.sagacommons.outbox.OutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+@Slf4j
+@RequiredArgsConstructor
+public class IdempotentEventProcessor<T extends SagaEvent> {
+
+    private static final String KEY_PATTERN = "%s:%s:%s";
+
+    private final ProcessedEventStore processedEventStore;
+    private final OutboxService<T> outboxService;
+    private final EventCodec<T> eventCodec;
+
+    @Value("${saga.idempotency.retention-ms}")
+    private long retentionMs;
+
+    public void process(T event, SagaStep step, Consumer<T> handler) {
+        var steps = new HashMap<String, SagaStep>();
+        if (step != null) {
+            steps.put(event.toHeader().transactionId(), step);
+        }
+        var key = createKey(event);
+        var outcome = processedEventStore.findOutcome(key);
+        if (outcome.isPresent()) {
+            replay(key, outcome.get(), steps);
+            return;
+        }
+        var keys = new HashMap<String, String>();
+        keys.put(event.toHeader().transactionId(), key);
+        processedEventStore.track(keys, steps, () -> handler.accept(event));
+    }
+
+    public void processAll(List<T> events, Map<String, SagaStep> stepsByTransactionId, Consumer<List<T>> handler) {
+        var pendingEvents = new LinkedHashMap<String, T>();
+        events.forEach(event -> pendingEvents.putIfAbsent(createKey(event), event));
+        processedEventStore.findOutcomes(List.copyOf(pendingEvents.keySet())).forEach((key, outcome) -> {
+            pendingEvents.remove(key);
+            replay(key, outcome, stepsByTransactionId);
+        });
+        if (pendingEvents.isEmpty()) {
+            return;
+        }
+        var keys = new HashMap<String, String>();
+        pendingEvents.forEach((key, event) -> keys.put(event.toHeader().transactionId(), key));
+        processedEventStore.track(keys, stepsByTransactionId, () -> handler.accept(new ArrayList<>(pendingEvents.values())));
+    }
+
+    @Scheduled(fixedDelayString = "${saga.idempotency.cleanup-interval-ms}")
+    public void cleanup() {
+        var removed = processedEventStore.deleteOlderThan(LocalDateTime.now().minus(retentionMs, ChronoUnit.MILLIS));
+        if (removed > 0) {
+            log.info("Removed {} processed events older than {} ms", removed, retentionMs);
+        }
+    }
+
+    private void replay(String key, byte[] outcome, Map<String, SagaStep> stepsByTransactionId) {
+        log.info("Event {} was already processed, replaying its outcome", key);
+        processedEventStore.track(Map.of(), stepsByTransactionId, () -> outboxService.save(eventCodec.decode(outcome)));
+    }
+
+    private String createKey(T event) {
+        var header = event.toHeader();
+        return String.format(KEY_PATTERN, header.transactionId(), header.source(), header.status());
+    }
+}
@@ -0,0 +1,112 @@
+package br.com.microservices.orchestrated.sagacommons.idempotency;
+
+import br.com.microservices.orchestrated.sagacommons.kafka.SagaStep;
+import br.com.microservices.orchestrated.sagacommons.outbox.OutboxEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class ProcessedEventStore {
+
+    private final ProcessedEventRepository processedEventRepository;
+    private final Cache<String, byte[]> outcomes;
+    private final ThreadLocal<ProcessingContext> processingContext = new ThreadLocal<>();
+
+    public ProcessedEventStore(ProcessedEventRepository processedEventRepository, long cacheMaxSize, long cacheTtlMs) {
+        this.processedEventRepository = processedEventRepository;
+        this.outcomes = Caffeine
+                .newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+                .build();
+    }
+
+    public Optional<byte[]> findOutcome(String key) {
+        var outcome = outcomes.getIfPresent(key);
+        if (outcome != null) {
+            return Optional.of(outcome);
+        }
+        return processedEventRepository
+                .findById(key)
+                .map(processedEvent -> {
+                    outcomes.put(key, processedEvent.getOutcome());
+                    return processedEvent.getOutcome();
+                });
+    }
+
+    public Map<String, byte[]> findOutcomes(Collection<String> keys) {
+        var found = new HashMap<>(outcomes.getAllPresent(keys));
+        var missingKeys = keys
+                .stream()
+                .filter(key -> !found.containsKey(key))
+                .toList();
+        if (!missingKeys.isEmpty()) {
+            processedEventRepository.findAllById(missingKeys).forEach(processedEvent -> {
+                outcomes.put(processedEvent.getId(), processedEvent.getOutcome());
+                found.put(processedEvent.getId(), processedEvent.getOutcome());
+            });
+        }
+        return found;
+    }
+
+    public void track(Map<String, String> keysByTransactionId, Map<String, SagaStep> stepsByTransactionId, Runnable handler) {
+        processingContext.set(new ProcessingContext(keysByTransactionId, stepsByTransactionId));
+        try {
+            handler.run();
+        } finally {
+            processingContext.remove();
+        }
+    }
+
+    public Optional<SagaStep> findStep(String transactionId) {
+        var context = processingContext.get();
+        return context == null
+                ? Optional.empty()
+                : Optional.ofNullable(context.steps().get(transactionId));
+    }
+
+    public void record(List<OutboxEvent> outboxEvents) {
+        var context = processingContext.get();
+        if (context == null) {
+            return;
+        }
+        var keys = context.keys();
+        var processedEvents = outboxEvents
+                .stream()
+                .filter(outboxEvent -> keys.containsKey(outboxEvent.getTransactionId()))
+                .map(outboxEvent -> ProcessedEvent
+                        .builder()
+                        .id(keys.get(outboxEvent.getTransactionId()))
+                        .orderId(outboxEvent.getOrderId())
+                        .transactionId(outboxEvent.getTransactionId())
+                        .outcome(outboxEvent.getPayload())
+                        .build())
+                .toList();
+        if (processedEvents.isEmpty()) {
+            return;
+        }
+        processedEventRepository.saveAllAndFlush(processedEvents);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                processedEvents.forEach(processedEvent -> outcomes.put(processedEvent.getId(), processedEvent.getOutcome()));
+            }
+        });
+    }
+
+    public int deleteOlderThan(LocalDateTime createdAt) {
+        return processedEventRepository.deleteByCreatedAtBefore(createdAt);
+    }
+
+    private record ProcessingContext(Map<String, String> keys, Map<String, SagaStep> steps) {
+    }
+}
@@ -0,0 +1,7 @@
+package br.com.microservices.orchestrated.sagacommons.kafka;
+
+public enum EDeliveryOutcome {
+
+    DELIVERED,
+    DEAD_LETTERED
+}
@@ -0,0 +1,93 @@
+package br.com.microservices.orchestrated.sagacommons.kafka;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@RequiredArgsConstructor
+public class SagaEventPublisher {
+
+    private static final String DEAD_LETTER_SUFFIX = ".DLT";
+    private static final String SEND_TIMER = "saga.producer.send";
+    private static final String DEAD_LETTER_COUNTER = "saga.producer.dead-letter";
+    private static final String SUCCESS_OUTCOME = "success";
+    private static final String FAILURE_OUTCOME = "failure";
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public static String deadLetterTopic(String topic) {
+        return topic.concat(DEAD_LETTER_SUFFIX);
+    }
+
+    public CompletableFuture<EDeliveryOutcome> send(ProducerRecord<String, byte[]> record) {
+        return send(record, !kafkaTemplate.inTransaction());
+    }
+
+    public CompletableFuture<EDeliveryOutcome> sendWithoutDeadLetter(ProducerRecord<String, byte[]> record) {
+        return send(record, false);
+    }
+
+    private CompletableFuture<EDeliveryOutcome> send(ProducerRecord<String, byte[]> record, boolean deadLetter) {
+        var delivery = new CompletableFuture<EDeliveryOutcome>();
+        var startTime = System.nanoTime();
+        try {
+            log.info("Sending evento to topic {} with key {}", record.topic(), record.key());
+            log.debug("Sending evento to topic {} with {} bytes", record.topic(), record.value().length);
+            kafkaTemplate.send(record)
+                    .whenComplete((result, ex) -> handleSendResult(record, deadLetter, startTime, ex, delivery));
+        } catch (Exception ex) {
+            handleSendResult(record, deadLetter, startTime, ex, delivery);
+        }
+        return delivery;
+    }
+
+    private void handleSendResult(ProducerRecord<String, byte[]> record, boolean deadLetter, long startTime,
+                                  Throwable ex, CompletableFuture<EDeliveryOutcome> delivery) {
+        var topic = record.topic();
+        meterRegistry.timer(SEND_TIMER, "topic", topic, "outcome", ex == null ? SUCCESS_OUTCOME : FAILURE_OUTCOME)
+                .record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        if (ex == null) {
+            delivery.complete(EDeliveryOutcome.DELIVERED);
+            return;
+        }
+        if (!deadLetter) {
+            log.error("Erro trying to send data to topic {} with key {}", topic, record.key(), ex);
+            delivery.completeExceptionally(ex);
+            return;
+        }
+        log.error("Erro trying to send data to topic {} with key {}, sending it to the dead letter topic", topic, record.key(), ex);
+        meterRegistry.counter(DEAD_LETTER_COUNTER, "topic", topic).increment();
+        CompletableFuture.runAsync(() -> sendToDeadLetter(copyRecord(record, deadLetterTopic(topic)), ex, delivery));
+    }
+
+    private void sendToDeadLetter(ProducerRecord<String, byte[]> record, Throwable cause, CompletableFuture<EDeliveryOutcome> delivery) {
+        try {
+            kafkaTemplate.send(record)
+                    .whenComplete((result, ex) -> {
+                        if (ex == null) {
+                            delivery.complete(EDeliveryOutcome.DEAD_LETTERED);
+                            return;
+                        }
+                        log.error("Erro trying to send data to topic {} with key {}", record.topic(), record.key(), ex);
+                        cause.addSuppressed(ex);
+                        delivery.completeExceptionally(cause);
+                    });
+        } catch (Exception ex) {
+            log.error("Erro trying to send data to topic {} with key {}", record.topic(), record.key(), ex);
+            cause.addSuppressed(ex);
+            delivery.completeExceptionally(cause);
+        }
+    }
+
+    private ProducerRecord<String, byte[]> copyRecord(ProducerRecord<String, byte[]> record, String topic) {
+        return new ProducerRecord<>(topic, null, record.key(), record.value(), new RecordHeaders(record.headers().toArray()));
+    }
+}
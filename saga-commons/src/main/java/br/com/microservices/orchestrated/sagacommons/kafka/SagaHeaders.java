@@ -0,0 +1,76 @@
+package br.com.microservices.orchestrated.sagacommons.kafka;
+
+import br.com.microservices.orchestrated.sagacommons.codec.EventHeader;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+public final class SagaHeaders {
+
+    public static final String EVENT_ID = "saga-event-id";
+    public static final String TRANSACTION_ID = "saga-transaction-id";
+    public static final String ORDER_ID = "saga-order-id";
+    public static final String SOURCE = "saga-source";
+    public static final String STATUS = "saga-status";
+    public static final String STEP = "saga-step";
+    public static final String ATTEMPT = "saga-attempt";
+
+    private SagaHeaders() {
+    }
+
+    public static void write(Headers headers, EventHeader header) {
+        writeValue(headers, EVENT_ID, header.id());
+        writeValue(headers, TRANSACTION_ID, header.transactionId());
+        writeValue(headers, ORDER_ID, header.orderId());
+        writeValue(headers, SOURCE, header.source());
+        writeValue(headers, STATUS, header.status());
+    }
+
+    public static Optional<EventHeader> read(Headers headers) {
+        var source = readValue(headers, SOURCE);
+        var status = readValue(headers, STATUS);
+        if (source == null || status == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new EventHeader(
+                readValue(headers, EVENT_ID),
+                readValue(headers, TRANSACTION_ID),
+                readValue(headers, ORDER_ID),
+                source,
+                status
+        ));
+    }
+
+    public static void writeStep(Headers headers, SagaStep step) {
+        writeValue(headers, STEP, step == null ? null : String.valueOf(step.step()));
+        writeValue(headers, ATTEMPT, step == null ? null : String.valueOf(step.attempt()));
+    }
+
+    public static Optional<SagaStep> readStep(Headers headers) {
+        var step = readValue(headers, STEP);
+        var attempt = readValue(headers, ATTEMPT);
+        if (step == null || attempt == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new SagaStep(Integer.parseInt(step), Integer.parseInt(attempt)));
+        } catch (NumberFormatException ex) {
+            return Optional.empty();
+        }
+    }
+
+    private static void writeValue(Headers headers, String name, String value) {
+        headers.remove(name);
+        if (value != null) {
+            headers.add(name, value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String readValue(Headers headers, String name) {
+        var header = headers.lastHeader(name);
+        return header == null || header.value() == null
+                ? null
+                : new String(header.value(), StandardCharsets.UTF_8);
+    }
+}
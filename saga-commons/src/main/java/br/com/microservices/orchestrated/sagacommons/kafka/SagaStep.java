@@ -0,0 +1,4 @@
+package br.com.microservices.orchestrated.sagacommons.kafka;
+
+public record SagaStep(int step, int attempt) {
+}
@@ -0,0 +1,6 @@
+package br.com.microservices.orchestrated.sagacommons.outbox;
+
+public enum EOutboxStrategy {
+    POLL,
+    NOTIFY;
+}
@@ -0,0 +1,58 @@
+package br.com.microservices.orchestrated.sagacommons.outbox;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Builder
+@Table(name = "outbox_event", indexes = @Index(name = "idx_outbox_event_order_id", columnList = "orderId, id"))
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_sequence")
+    @SequenceGenerator(name = "outbox_event_sequence", sequenceName = "outbox_event_sequence", allocationSize = 1)
+    private Long id;
+
+    @Column(nullable = false)
+    private String topic;
+
+    @Column(nullable = false)
+    private String orderId;
+
+    @Column(nullable = false)
+    private String transactionId;
+
+    private String eventId;
+
+    private String source;
+
+    private String status;
+
+    private String traceParent;
+
+    private Integer step;
+
+    private Integer attempt;
+
+    @Column(nullable = false)
+    private byte[] payload;
+
+    private String claimedBy;
+
+    private LocalDateTime claimedUntil;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    public void prePersist() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,39 @@
+package br.com.microservices.orchestrated.sagacommons.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query(value = """
+            WITH candidate AS (
+                SELECT id, order_id FROM outbox_event
+                WHERE claimed_until IS NULL OR claimed_until < :now
+                ORDER BY id
+                LIMIT :batchSize
+                FOR UPDATE SKIP LOCKED
+            )
+            UPDATE outbox_event o SET claimed_by = :owner, claimed_until = :claimedUntil
+            FROM candidate c
+            WHERE o.id = c.id
+              AND NOT EXISTS (
+                  SELECT 1 FROM outbox_event p
+                  WHERE p.order_id = c.order_id AND p.id < c.id AND p.id NOT IN (SELECT id FROM candidate)
+              )
+            RETURNING o.*
+            """, nativeQuery = true)
+    List<OutboxEvent> claimNextBatch(@Param("owner") String owner,
+                                     @Param("now") LocalDateTime now,
+                                     @Param("claimedUntil") LocalDateTime claimedUntil,
+                                     @Param("batchSize") int batchSize);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.claimedBy = null, o.claimedUntil = null WHERE o.claimedBy = :owner AND o.id IN :ids")
+    int releaseClaims(@Param("owner") String owner, @Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,222 @@
+package br.com.microservices.orchestrated.sagacommons.outbox;
+
+import br.com.microservices.orchestrated.sagacommons.codec.EventHeader;
+import br.com.microservices.orchestrated.sagacommons.kafka.EDeliveryOutcome;
+import br.com.microservices.orchestrated.sagacommons.kafka.SagaEventPublisher;
+import br.com.microservices.orchestrated.sagacommons.kafka.SagaHeaders;
+import br.com.microservices.orchestrated.sagacommons.kafka.SagaStep;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+@Slf4j
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+    private static final String THREAD_NAME = "outbox-relay";
+    private static final String RELAYED_COUNTER = "saga.outbox.relayed";
+    private static final String TRACE_PARENT_HEADER = "traceparent";
+    private static final String RELAY_SPAN = "outbox relay";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final SagaEventPublisher sagaEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Tracer tracer;
+    private final Propagator propagator;
+    private final String owner = UUID.randomUUID().toString();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    @Value("${saga.outbox.strategy}")
+    private EOutboxStrategy strategy;
+
+    @Value("${saga.outbox.batch-size}")
+    private int batchSize;
+
+    @Value("${saga.outbox.send-timeout-ms}")
+    private long sendTimeoutMs;
+
+    @Value("${saga.outbox.claim-timeout-ms}")
+    private long claimTimeoutMs;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            var thread = new Thread(runnable, THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    public void wakeUp() {
+        if (EOutboxStrategy.NOTIFY == strategy) {
+            scheduleDrain();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${saga.outbox.poll-interval-ms}")
+    public void poll() {
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (!drainScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException ex) {
+            drainScheduled.set(false);
+        }
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        try {
+            var relayed = relayBatch();
+            while (relayed == batchSize) {
+                relayed = relayBatch();
+            }
+        } catch (Exception ex) {
+            log.error("Erro trying to relay outbox events: ", ex);
+        }
+    }
+
+    private int relayBatch() {
+        var now = LocalDateTime.now();
+        var outboxEvents = transactionTemplate.execute(status -> outboxEventRepository
+                .claimNextBatch(owner, now, now.plus(claimTimeoutMs, ChronoUnit.MILLIS), batchSize));
+        if (outboxEvents == null || outboxEvents.isEmpty()) {
+            return 0;
+        }
+        var sentIds = relayInOrder(outboxEvents);
+        var unsentIds = outboxEvents
+                .stream()
+                .map(OutboxEvent::getId)
+                .filter(id -> !sentIds.contains(id))
+                .toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxEventRepository.deleteAllByIdInBatch(sentIds);
+            if (!unsentIds.isEmpty()) {
+                outboxEventRepository.releaseClaims(owner, unsentIds);
+            }
+        });
+        if (!sentIds.isEmpty()) {
+            log.debug("Relayed {} outbox events", sentIds.size());
+            meterRegistry.counter(RELAYED_COUNTER).increment(sentIds.size());
+        }
+        return unsentIds.isEmpty() ? outboxEvents.size() : 0;
+    }
+
+    private Set<Long> relayInOrder(List<OutboxEvent> outboxEvents) {
+        var sentIds = ConcurrentHashMap.<Long>newKeySet();
+        var expired = new AtomicBoolean();
+        var deliveries = outboxEvents
+                .stream()
+                .collect(Collectors.groupingBy(OutboxEvent::getOrderId, LinkedHashMap::new, Collectors.toList()))
+                .values()
+                .stream()
+                .map(orderEvents -> relayOrderEvents(orderEvents, sentIds, expired))
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(deliveries).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException ex) {
+            log.warn("Erro trying to relay {} outbox events, keeping the unsent ones for the next batch", outboxEvents.size(), ex);
+        }
+        expired.set(true);
+        return Set.copyOf(sentIds);
+    }
+
+    private CompletableFuture<Void> relayOrderEvents(List<OutboxEvent> orderEvents, Set<Long> sentIds, AtomicBoolean expired) {
+        var delivery = CompletableFuture.<Void>completedFuture(null);
+        for (var outboxEvent : orderEvents) {
+            delivery = delivery
+                    .thenComposeAsync(ignored -> expired.get()
+                            ? CompletableFuture.failedFuture(new TimeoutException("Outbox relay batch expired"))
+                            : sendEvent(outboxEvent))
+                    .thenRun(() -> sentIds.add(outboxEvent.getId()));
+        }
+        return delivery.exceptionally(ex -> {
+            log.warn("Erro trying to relay outbox events for order {}, keeping the remaining ones for the next batch",
+                    orderEvents.get(0).getOrderId(), ex);
+            return null;
+        });
+    }
+
+    private CompletableFuture<EDeliveryOutcome> sendEvent(OutboxEvent outboxEvent) {
+        var record = new ProducerRecord<>(outboxEvent.getTopic(), outboxEvent.getOrderId(), outboxEvent.getPayload());
+        SagaHeaders.write(record.headers(), createEventHeader(outboxEvent));
+        SagaHeaders.writeStep(record.headers(), createStep(outboxEvent));
+        var span = startRelaySpan(outboxEvent);
+        var scope = tracer.withSpan(span);
+        try {
+            return sagaEventPublisher.sendWithoutDeadLetter(record);
+        } finally {
+            scope.close();
+            span.end();
+        }
+    }
+
+    private Span startRelaySpan(OutboxEvent outboxEvent) {
+        if (outboxEvent.getTraceParent() == null || outboxEvent.getTraceParent().isEmpty()) {
+            return tracer.nextSpan().name(RELAY_SPAN).start();
+        }
+        return propagator
+                .extract(Map.of(TRACE_PARENT_HEADER, outboxEvent.getTraceParent()), Map::get)
+                .name(RELAY_SPAN)
+                .start();
+    }
+
+    private SagaStep createStep(OutboxEvent outboxEvent) {
+        if (outboxEvent.getStep() == null || outboxEvent.getAttempt() == null) {
+            return null;
+        }
+        return new SagaStep(outboxEvent.getStep(), outboxEvent.getAttempt());
+    }
+
+    private EventHeader createEventHeader(OutboxEvent outboxEvent) {
+        return new EventHeader(
+                outboxEvent.getEventId(),
+                outboxEvent.getTransactionId(),
+                outboxEvent.getOrderId(),
+                outboxEvent.getSource(),
+                outboxEvent.getStatus()
+        );
+    }
+}
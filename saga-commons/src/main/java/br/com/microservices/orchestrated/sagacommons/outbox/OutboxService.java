@@ -0,0 +1,91 @@
+package br.com.microservices.orchestrated.sagacommons.outbox;
+
+import br.com.microservices.orchestrated.sagacommons.codec.EventCodec;
+import br.com.microservices.orchestrated.sagacommons.codec.SagaEvent;
+import br.com.microservices.orchestrated.sagacommons.idempotency.ProcessedEventStore;
+import br.com.microservices.orchestrated.sagacommons.kafka.SagaStep;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class OutboxService<T extends SagaEvent> {
+
+    private static final String SAGA_EVENTS_COUNTER = "saga.events";
+    private static final String TRACE_PARENT_HEADER = "traceparent";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxRelay outboxRelay;
+    private final ProcessedEventStore processedEventStore;
+    private final EventCodec<T> eventCodec;
+    private final String topic;
+    private final MeterRegistry meterRegistry;
+    private final Tracer tracer;
+    private final Propagator propagator;
+
+    @Transactional
+    public void save(T event) {
+        saveAll(List.of(event));
+    }
+
+    @Transactional
+    public void saveAll(List<T> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        var traceParent = findTraceParent();
+        var outboxEvents = outboxEventRepository.saveAll(events
+                .stream()
+                .map(event -> createOutboxEvent(event, traceParent))
+                .toList());
+        processedEventStore.record(outboxEvents);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                outboxRelay.wakeUp();
+                outboxEvents.forEach(outboxEvent -> countEvent(outboxEvent));
+            }
+        });
+    }
+
+    private void countEvent(OutboxEvent outboxEvent) {
+        meterRegistry.counter(SAGA_EVENTS_COUNTER, "source", String.valueOf(outboxEvent.getSource()),
+                "status", String.valueOf(outboxEvent.getStatus())).increment();
+    }
+
+    private String findTraceParent() {
+        var span = tracer.currentSpan();
+        if (span == null) {
+            return null;
+        }
+        var carrier = new HashMap<String, String>();
+        propagator.inject(span.context(), carrier, Map::put);
+        return carrier.get(TRACE_PARENT_HEADER);
+    }
+
+    private OutboxEvent createOutboxEvent(T event, String traceParent) {
+        var header = event.toHeader();
+        var step = processedEventStore.findStep(header.transactionId());
+        return OutboxEvent
+                .builder()
+                .topic(topic)
+                .orderId(header.orderId())
+                .transactionId(header.transactionId())
+                .eventId(header.id())
+                .source(header.source())
+                .status(header.status())
+                .payload(eventCodec.encode(event))
+                .traceParent(traceParent)
+                .step(step.map(SagaStep::step).orElse(null))
+                .attempt(step.map(SagaStep::attempt).orElse(null))
+                .build();
+    }
+}
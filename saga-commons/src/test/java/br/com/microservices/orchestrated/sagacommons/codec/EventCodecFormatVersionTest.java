@@ -0,0 +1,56 @@
+package br.com.microservices.orchestrated.sagacommons.codec;
+
+import br.com.microservices.orchestrated.sagacommons.codec.SagaEventFixture.Event;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EventCodecFormatVersionTest {
+
+    private final EventCodec<Event> cborCodec = new EventCodec<>(SagaEventFixture.createObjectMapper(), Event.class, EWireFormat.CBOR);
+    private final Event event = SagaEventFixture.createEvent(3, 4);
+
+    @Test
+    void shouldPrefixCborPayloadsWithTheFormatMarkerAndVersion() {
+        var payload = cborCodec.encode(event);
+
+        assertEquals(EventCodec.CBOR_FORMAT_MARKER, payload[0]);
+        assertEquals(EventCodec.CBOR_FORMAT_VERSION, payload[1]);
+        assertEquals(event, cborCodec.decode(payload));
+        assertEquals(event.toHeader(), cborCodec.decodeHeader(payload));
+        assertEquals(event.eventHistory(), cborCodec.decodeHistory(payload, SagaEventFixture.History.class));
+    }
+
+    @Test
+    void shouldDecodeSelfDescribedCborPayloadsWrittenBeforeTheFormatVersion() throws Exception {
+        var legacyPayload = CBORMapper
+                .builder()
+                .enable(CBORGenerator.Feature.WRITE_TYPE_HEADER)
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .addModule(new JavaTimeModule())
+                .build()
+                .writeValueAsBytes(event);
+
+        assertEquals(event, cborCodec.decode(legacyPayload));
+        assertEquals(event.toHeader(), cborCodec.decodeHeader(legacyPayload));
+    }
+
+    @Test
+    void shouldRejectCborPayloadsWithANewerFormatVersion() {
+        var payload = cborCodec.encode(event);
+        payload[1] = EventCodec.CBOR_FORMAT_VERSION + 1;
+
+        var decodeError = assertThrows(EventDecodeException.class, () -> cborCodec.decode(payload));
+        var headerError = assertThrows(EventDecodeException.class, () -> cborCodec.decodeHeader(payload));
+
+        assertEquals(EDecodeError.UNSUPPORTED_VERSION, decodeError.getError());
+        assertEquals(EDecodeError.UNSUPPORTED_VERSION, headerError.getError());
+    }
+}
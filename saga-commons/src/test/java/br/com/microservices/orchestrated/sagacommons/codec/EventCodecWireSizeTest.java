@@ -0,0 +1,38 @@
+package br.com.microservices.orchestrated.sagacommons.codec;
+
+import br.com.microservices.orchestrated.sagacommons.codec.SagaEventFixture.Event;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventCodecWireSizeTest {
+
+    private static final int PRODUCTS = 3;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 13})
+    void shouldSendFewerBytesWithCborThanTheJacksonStringPath(int history) throws Exception {
+        var objectMapper = SagaEventFixture.createObjectMapper();
+        var jsonCodec = new EventCodec<>(objectMapper, Event.class, EWireFormat.JSON);
+        var cborCodec = new EventCodec<>(objectMapper, Event.class, EWireFormat.CBOR);
+        var event = SagaEventFixture.createEvent(PRODUCTS, history);
+
+        var jacksonPayload = objectMapper.writeValueAsString(event).getBytes(StandardCharsets.UTF_8);
+        var jsonPayload = jsonCodec.encode(event);
+        var cborPayload = cborCodec.encode(event);
+
+        System.out.printf("EventCodec history %d: jackson string %d bytes, json %d bytes, cbor %d bytes (%.0f%%)%n",
+                history, jacksonPayload.length, jsonPayload.length, cborPayload.length,
+                100.0 * cborPayload.length / jacksonPayload.length);
+        assertArrayEquals(jacksonPayload, jsonPayload);
+        assertTrue(cborPayload.length * 4 <= jacksonPayload.length * 3, "CBOR must be at least a quarter smaller on the wire than JSON");
+        assertEquals(event, jsonCodec.decode(cborPayload));
+        assertEquals(event, cborCodec.decode(jsonPayload));
+        assertEquals(event.toHeader(), cborCodec.decodeHeader(cborPayload));
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.microservices.orchestrated.sagacommons.codec;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+public final class SagaEventFixture {
+
+    private static final List<String> HOPS = List.of(
+            "ORCHESTRATOR", "PRODUCT_VALIDATION_SERVICE", "PAYMENT_SERVICE", "INVENTORY_SERVICE");
+
+    private SagaEventFixture() {
+    }
+
+    public static ObjectMapper createObjectMapper() {
+        return JsonMapper
+                .builder()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .addModule(new JavaTimeModule())
+                .build();
+    }
+
+    public static Event createEvent(int products, int history) {
+        var orderId = UUID.randomUUID().toString();
+        var now = LocalDateTime.now();
+        return new Event(
+                UUID.randomUUID().toString(),
+                UUID.randomUUID().toString(),
+                orderId,
+                new Order(
+                        orderId,
+                        IntStream
+                                .range(0, products)
+                                .mapToObj(index -> new OrderProducts(new Product("PRODUCT_" + index, 10.0 * (index + 1)), index + 1))
+                                .toList(),
+                        now,
+                        UUID.randomUUID().toString(),
+                        150.0,
+                        products * 2
+                ),
+                HOPS.get(history % HOPS.size()),
+                "SUCCESS",
+                IntStream
+                        .range(0, history)
+                        .mapToObj(index -> new History(
+                                HOPS.get(index % HOPS.size()),
+                                "SUCCESS",
+                                "Saga step " + index + " executed with successfully!",
+                                now.plusNanos(index * 1_000_000L)))
+                        .toList(),
+                now
+        );
+    }
+
+    public record Event(String id,
+                        String transactionId,
+                        String orderId,
+                        Order payload,
+                        String source,
+                        String status,
+                        List<History> eventHistory,
+                        LocalDateTime createdAt) implements SagaEvent {
+
+        @Override
+        public EventHeader toHeader() {
+            return new EventHeader(id, transactionId, orderId, source, status);
+        }
+    }
+
+    public record Order(String id,
+                        List<OrderProducts> products,
+                        LocalDateTime createdAt,
+                        String transactionId,
+                        Double totalAmount,
+                        Integer totalItems) {
+    }
+
+    public record OrderProducts(Product product, int quantity) {
+    }
+
+    public record Product(String code, Double unitValue) {
+    }
+
+    public record History(String source, String status, String message, LocalDateTime createdAt) {
+    }
+}